@@ -43,6 +43,7 @@ import com.flipkart.android.proteus.ProteusBuilder;
 import com.flipkart.android.proteus.ProteusContext;
 import com.flipkart.android.proteus.ProteusLayoutInflater;
 import com.flipkart.android.proteus.ProteusView;
+import com.flipkart.android.proteus.ProteusViewPool;
 import com.flipkart.android.proteus.StyleManager;
 import com.flipkart.android.proteus.Styles;
 import com.flipkart.android.proteus.demo.converter.GsonConverterFactory;
@@ -52,6 +53,7 @@ import com.flipkart.android.proteus.support.design.DesignModule;
 import com.flipkart.android.proteus.support.v4.SupportV4Module;
 import com.flipkart.android.proteus.support.v7.CardViewModule;
 import com.flipkart.android.proteus.support.v7.RecyclerViewModule;
+import com.flipkart.android.proteus.value.DataDiff;
 import com.flipkart.android.proteus.value.DrawableValue;
 import com.flipkart.android.proteus.value.Layout;
 import com.flipkart.android.proteus.value.ObjectValue;
@@ -63,6 +65,7 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import retrofit2.Call;
@@ -82,6 +85,8 @@ public class ProteusActivity extends AppCompatActivity {
 
     private ProteusLayoutInflater layoutInflater;
 
+    private ProteusViewPool pool;
+
     ObjectValue data;
     Layout layout;
     ProteusView view;
@@ -207,6 +212,7 @@ public class ProteusActivity extends AppCompatActivity {
                 .build();
 
         layoutInflater = context.getInflater();
+        pool = new ProteusViewPool(context);
 
         ProteusTypeAdapterFactory.PROTEUS_INSTANCE_HOLDER.setProteus(proteus);
 
@@ -235,14 +241,25 @@ public class ProteusActivity extends AppCompatActivity {
         container = (ViewGroup) findViewById(R.id.content_main);
     }
 
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (null != pool) {
+            pool.onTrimMemory(level);
+        }
+    }
+
     void render() {
 
-        // remove the current view
+        // remove the current view, keeping it to be bound again if the layout did not change
+        if (null != view) {
+            pool.release(view);
+        }
         container.removeAllViews();
 
-        // Inflate a new view using proteus
+        // Inflate a new view using proteus, or rebind the kept one
         long start = System.currentTimeMillis();
-        view = layoutInflater.inflate(layout, data, container, 0);
+        view = pool.inflate(layout, data, container, 0);
         System.out.println("render: " + (System.currentTimeMillis() - start));
 
         container.addView(view.getAsView());
@@ -273,7 +290,15 @@ public class ProteusActivity extends AppCompatActivity {
                 super.onPostExecute(data);
                 try {
                     long start = System.currentTimeMillis();
-                    view.getViewManager().update(data);
+                    ProteusView.Manager manager = view.getViewManager();
+                    if (null != data && null != ProteusActivity.this.data && manager instanceof ProteusView.IncrementalManager) {
+                        // only update the views bound to the paths which changed
+                        List<String> paths = DataDiff.diff(ProteusActivity.this.data, data);
+                        ProteusActivity.this.data = data;
+                        ((ProteusView.IncrementalManager) manager).update(data, paths);
+                    } else {
+                        manager.update(data);
+                    }
                     System.out.println("update: " + (System.currentTimeMillis() - start));
                 } catch (Exception e) {
                     e.printStackTrace();
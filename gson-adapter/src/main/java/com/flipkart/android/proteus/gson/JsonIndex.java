@@ -0,0 +1,489 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.gson;
+
+import android.support.annotation.NonNull;
+
+import com.flipkart.android.proteus.toolbox.LazilyParsedNumber;
+import com.flipkart.android.proteus.value.Array;
+import com.flipkart.android.proteus.value.Null;
+import com.flipkart.android.proteus.value.ObjectValue;
+import com.flipkart.android.proteus.value.Primitive;
+import com.flipkart.android.proteus.value.Value;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * JsonIndex keeps UTF-8 encoded JSON with the offsets of its objects and arrays, and creates
+ * {@link ObjectValue}s and {@link Array}s which decode their members from it only when they
+ * are first accessed. Building the index is a single pass over the bytes which allocates
+ * nothing per value, so reading a large document whose members are mostly never accessed
+ * costs little more than the bytes themselves.
+ * </p>
+ * <p>
+ * The structure of the document is checked when the index is built, the members when they are
+ * decoded, so malformed members throw a {@link JsonSyntaxException} when they are accessed.
+ * Objects whose first member is the {@code type} of a layout are read eagerly as
+ * {@link com.flipkart.android.proteus.value.Layout}s.
+ * </p>
+ */
+class JsonIndex {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte[] TYPE = {'"', 't', 'y', 'p', 'e', '"'};
+
+    @NonNull
+    private final ProteusTypeAdapterFactory factory;
+
+    @NonNull
+    private final byte[] json;
+
+    /**
+     * The offsets of the objects and arrays in the order they open, and the offsets at
+     * which each of them closes.
+     */
+    @NonNull
+    private final int[] opens;
+
+    @NonNull
+    private final int[] closes;
+
+    private final int count;
+
+    /**
+     * The names decoded so far, by the hash of their bytes, so that a name repeated in every
+     * element of an array is decoded once. A race between threads at most decodes a name twice.
+     */
+    @NonNull
+    private final String[] names = new String[256];
+
+    private JsonIndex(@NonNull ProteusTypeAdapterFactory factory, @NonNull byte[] json, @NonNull int[] opens, @NonNull int[] closes, int count) {
+        this.factory = factory;
+        this.json = json;
+        this.opens = opens;
+        this.closes = closes;
+        this.count = count;
+    }
+
+    @NonNull
+    static JsonIndex build(@NonNull ProteusTypeAdapterFactory factory, @NonNull byte[] json) {
+        int[] opens = new int[64];
+        int[] closes = new int[64];
+        int[] stack = new int[16];
+        int count = 0;
+        int depth = 0;
+        boolean string = false;
+        for (int i = 0; i < json.length; i++) {
+            byte b = json[i];
+            if (string) {
+                if (b == '\\') {
+                    i++;
+                } else if (b == '"') {
+                    string = false;
+                }
+                continue;
+            }
+            switch (b) {
+                case '"':
+                    string = true;
+                    break;
+                case '{':
+                case '[':
+                    if (count == opens.length) {
+                        opens = Arrays.copyOf(opens, count * 2);
+                        closes = Arrays.copyOf(closes, count * 2);
+                    }
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    opens[count] = i;
+                    stack[depth++] = count++;
+                    break;
+                case '}':
+                case ']':
+                    if (depth == 0 || json[opens[stack[depth - 1]]] != (b == '}' ? '{' : '[')) {
+                        throw new JsonSyntaxException("unexpected '" + (char) b + "' at " + i);
+                    }
+                    closes[stack[--depth]] = i;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (string || depth > 0) {
+            throw new JsonSyntaxException("unterminated " + (string ? "string" : "object or array"));
+        }
+        return new JsonIndex(factory, json, opens, closes, count);
+    }
+
+    /**
+     * @return the value at the root of the document.
+     */
+    @NonNull
+    Value root() {
+        int start = skip(0, json.length);
+        int end = end(start, json.length);
+        if (skip(end, json.length) != json.length) {
+            throw new JsonSyntaxException("unexpected content at " + end);
+        }
+        return value(start, end);
+    }
+
+    private int close(int open) {
+        int position = Arrays.binarySearch(opens, 0, count, open);
+        return closes[position];
+    }
+
+    private int skip(int i, int end) {
+        while (i < end) {
+            byte b = json[i];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the offset just after the value starting at {@code start}.
+     */
+    private int end(int start, int limit) {
+        if (start >= limit) {
+            throw new JsonSyntaxException("expected a value at " + start);
+        }
+        switch (json[start]) {
+            case '{':
+            case '[':
+                return close(start) + 1;
+            case '"':
+                return closingQuote(start) + 1;
+            default:
+                int i = start;
+                while (i < limit) {
+                    byte b = json[i];
+                    if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                        break;
+                    }
+                    i++;
+                }
+                return i;
+        }
+    }
+
+    private int closingQuote(int quote) {
+        for (int i = quote + 1; i < json.length; i++) {
+            if (json[i] == '\\') {
+                i++;
+            } else if (json[i] == '"') {
+                return i;
+            }
+        }
+        throw new JsonSyntaxException("unterminated string at " + quote);
+    }
+
+    @NonNull
+    private Value value(int start, int end) {
+        switch (json[start]) {
+            case '{':
+                return isLayout(start) ? eager(start, end) : new ObjectValue(new ObjectSource(start, end - 1));
+            case '[':
+                return new Array(new ArraySource(start, end - 1));
+            case '"':
+                return ProteusTypeAdapterFactory.compileString(factory.getContext(), string(start, end - 1));
+            case 't':
+                expect("true", start, end);
+                return Primitive.valueOf(true);
+            case 'f':
+                expect("false", start, end);
+                return Primitive.valueOf(false);
+            case 'n':
+                expect("null", start, end);
+                return Null.INSTANCE;
+            default:
+                byte b = json[start];
+                if (b != '-' && (b < '0' || b > '9')) {
+                    throw new JsonSyntaxException("unexpected '" + (char) b + "' at " + start);
+                }
+                return number(start, end);
+        }
+    }
+
+    /**
+     * Reads a number. Integers of up to 9 digits, the most common numbers in a payload, are
+     * parsed from the bytes directly, other numbers keep their text.
+     */
+    @NonNull
+    private Value number(int start, int end) {
+        boolean negative = json[start] == '-';
+        int i = negative ? start + 1 : start;
+        int digits = end - i;
+        if (digits > 0 && digits <= 9 && (json[i] != '0' || (digits == 1 && !negative))) {
+            int value = 0;
+            while (i < end) {
+                byte b = json[i];
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                value = value * 10 + (b - '0');
+                i++;
+            }
+            if (i == end) {
+                return Primitive.valueOf(negative ? -value : value);
+            }
+        }
+        return Primitive.valueOf(new LazilyParsedNumber(new String(json, start, end - start, UTF_8)));
+    }
+
+    /**
+     * Decodes the name between the quotes, reusing the instance decoded for the same bytes.
+     */
+    @NonNull
+    private String name(int quote, int closingQuote) {
+        int hash = 0;
+        for (int i = quote + 1; i < closingQuote; i++) {
+            byte b = json[i];
+            if (b == '\\' || b < 0) {
+                return intern(string(quote, closingQuote));
+            }
+            hash = 31 * hash + b;
+        }
+        // for ASCII bytes the hash is the hash code of the name
+        int slot = (hash ^ (hash >>> 16)) & (names.length - 1);
+        String name = names[slot];
+        if (null == name || !matches(name, quote + 1, closingQuote)) {
+            name = intern(new String(json, quote + 1, closingQuote - quote - 1, UTF_8));
+            names[slot] = name;
+        }
+        return name;
+    }
+
+    private boolean matches(@NonNull String name, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != json[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @NonNull
+    private String intern(@NonNull String name) {
+        KeyPool pool = factory.getKeyPool();
+        return null != pool ? pool.intern(name) : name;
+    }
+
+    private void expect(String literal, int start, int end) {
+        boolean matches = end - start == literal.length();
+        for (int i = 0; matches && i < literal.length(); i++) {
+            matches = json[start + i] == literal.charAt(i);
+        }
+        if (!matches) {
+            throw new JsonSyntaxException("expected " + literal + " at " + start);
+        }
+    }
+
+    /**
+     * Decodes the string between the quotes at {@code quote} and {@code closingQuote}.
+     */
+    @NonNull
+    private String string(int quote, int closingQuote) {
+        int start = quote + 1;
+        int escape = -1;
+        for (int i = start; i < closingQuote; i++) {
+            if (json[i] == '\\') {
+                escape = i;
+                break;
+            }
+        }
+        if (escape < 0) {
+            return new String(json, start, closingQuote - start, UTF_8);
+        }
+        StringBuilder builder = new StringBuilder(closingQuote - start);
+        int i = start;
+        while (i < closingQuote) {
+            if (json[i] != '\\') {
+                int run = i;
+                while (i < closingQuote && json[i] != '\\') {
+                    i++;
+                }
+                builder.append(new String(json, run, i - run, UTF_8));
+                continue;
+            }
+            byte c = json[i + 1];
+            i += 2;
+            switch (c) {
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 > closingQuote) {
+                        throw new JsonSyntaxException("malformed unicode escape at " + (i - 2));
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(new String(json, i, 4, UTF_8), 16));
+                    } catch (NumberFormatException e) {
+                        throw new JsonSyntaxException("malformed unicode escape at " + (i - 2), e);
+                    }
+                    i += 4;
+                    break;
+                default:
+                    builder.append((char) c);
+                    break;
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return {@code true} if the first member of the object is the {@code type} of a layout.
+     */
+    private boolean isLayout(int open) {
+        int end = close(open);
+        int i = skip(open + 1, end);
+        if (i + TYPE.length > end) {
+            return false;
+        }
+        for (int j = 0; j < TYPE.length; j++) {
+            if (json[i + j] != TYPE[j]) {
+                return false;
+            }
+        }
+        i = skip(i + TYPE.length, end);
+        if (i >= end || json[i] != ':') {
+            return false;
+        }
+        i = skip(i + 1, end);
+        if (i >= end || json[i] != '"') {
+            return false;
+        }
+        String type = string(i, closingQuote(i));
+        return ProteusTypeAdapterFactory.PROTEUS_INSTANCE_HOLDER.isLayout(type);
+    }
+
+    /**
+     * Reads a layout with the value adapter, from its text decoded in one bulk pass rather
+     * than through a streaming decoder.
+     */
+    @NonNull
+    private Value eager(int start, int end) {
+        JsonReader reader = new JsonReader(new StringReader(new String(json, start, end - start, UTF_8)));
+        try {
+            return factory.VALUE_TYPE_ADAPTER.read(reader);
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private class ObjectSource implements ObjectValue.Source {
+
+        private final int open;
+
+        private final int close;
+
+        ObjectSource(int open, int close) {
+            this.open = open;
+            this.close = close;
+        }
+
+        @Override
+        public void read(@NonNull ObjectValue object) {
+            int end = close;
+            int i = skip(open + 1, end);
+            while (i < end) {
+                if (json[i] != '"') {
+                    throw new JsonSyntaxException("expected a name at " + i);
+                }
+                int quote = closingQuote(i);
+                String name = name(i, quote);
+                i = skip(quote + 1, end);
+                if (i >= end || json[i] != ':') {
+                    throw new JsonSyntaxException("expected ':' at " + i);
+                }
+                int start = skip(i + 1, end);
+                int valueEnd = end(start, end);
+                object.add(name, value(start, valueEnd));
+                i = next(valueEnd, end);
+            }
+        }
+    }
+
+    private class ArraySource implements Array.Source {
+
+        private final int open;
+
+        private final int close;
+
+        ArraySource(int open, int close) {
+            this.open = open;
+            this.close = close;
+        }
+
+        @Override
+        public void read(@NonNull Array array) {
+            int end = close;
+            int i = skip(open + 1, end);
+            while (i < end) {
+                int valueEnd = end(i, end);
+                array.add(value(i, valueEnd));
+                i = next(valueEnd, end);
+            }
+        }
+    }
+
+    /**
+     * @return the start of the next member after a value, or {@code end} after the last one.
+     */
+    private int next(int i, int end) {
+        i = skip(i, end);
+        if (i < end) {
+            if (json[i] != ',') {
+                throw new JsonSyntaxException("expected ',' at " + i);
+            }
+            i = skip(i + 1, end);
+            if (i >= end) {
+                throw new JsonSyntaxException("unexpected ',' at " + (i - 1));
+            }
+        }
+        return i;
+    }
+}
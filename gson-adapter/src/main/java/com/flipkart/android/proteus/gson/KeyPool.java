@@ -0,0 +1,77 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.gson;
+
+import android.support.annotation.NonNull;
+
+/**
+ * <p>
+ * KeyPool is a bounded intern pool for the keys of parsed objects. Repeated keys, like
+ * the {@code "title"} of every element of an array, are replaced by one shared instance, so
+ * the parsed values do not retain a copy of the key per object, and lookups of the key can
+ * hit the identity check of {@link String#equals(Object)}.
+ * </p>
+ * <p>
+ * The pool is a fixed size table indexed by the hash of the key, and a key replaces the one
+ * in its slot on a miss. It never grows, never blocks, and a race between threads at most
+ * loses a chance to share a key.
+ * </p>
+ */
+public class KeyPool {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    @NonNull
+    private final String[] keys;
+
+    private final int mask;
+
+    public KeyPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the number of keys in the pool, rounded up to a power of two.
+     */
+    public KeyPool(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        this.keys = new String[size < capacity ? size << 1 : size];
+        this.mask = keys.length - 1;
+    }
+
+    /**
+     * @return the pooled instance equal to {@code key}, or {@code key} itself, which is then pooled.
+     */
+    @NonNull
+    public String intern(@NonNull String key) {
+        int hash = key.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String pooled = keys[slot];
+        //noinspection StringEquality
+        if (null != pooled && (pooled == key || pooled.equals(key))) {
+            return pooled;
+        }
+        keys[slot] = key;
+        return key;
+    }
+}
@@ -20,12 +20,15 @@
 package com.flipkart.android.proteus.gson;
 
 import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.flipkart.android.proteus.FunctionManager;
 import com.flipkart.android.proteus.Proteus;
 import com.flipkart.android.proteus.ProteusConstants;
 import com.flipkart.android.proteus.ViewTypeParser;
 import com.flipkart.android.proteus.processor.AttributeProcessor;
+import com.flipkart.android.proteus.toolbox.LazilyParsedNumber;
 import com.flipkart.android.proteus.value.Array;
 import com.flipkart.android.proteus.value.Binding;
 import com.flipkart.android.proteus.value.Layout;
@@ -38,7 +41,6 @@ import com.google.gson.JsonSyntaxException;
 import com.google.gson.TypeAdapter;
 import com.google.gson.TypeAdapterFactory;
 import com.google.gson.internal.JsonReaderInternalAccess;
-import com.google.gson.internal.LazilyParsedNumber;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
@@ -65,6 +67,9 @@ public class ProteusTypeAdapterFactory implements TypeAdapterFactory {
 
     Context context;
 
+    @Nullable
+    private KeyPool keyPool;
+
     /**
      *
      */
@@ -81,9 +86,9 @@ public class ProteusTypeAdapterFactory implements TypeAdapterFactory {
                     return compileString(getContext(), in.nextString());
                 case NUMBER:
                     String number = in.nextString();
-                    return new Primitive(new LazilyParsedNumber(number));
+                    return Primitive.valueOf(new LazilyParsedNumber(number));
                 case BOOLEAN:
-                    return new Primitive(in.nextBoolean());
+                    return Primitive.valueOf(in.nextBoolean());
                 case NULL:
                     in.nextNull();
                     return Null.INSTANCE;
@@ -99,7 +104,7 @@ public class ProteusTypeAdapterFactory implements TypeAdapterFactory {
                     ObjectValue object = new ObjectValue();
                     in.beginObject();
                     if (in.hasNext()) {
-                        String name = in.nextName();
+                        String name = nextName(in);
                         if (ProteusConstants.TYPE.equals(name) && JsonToken.STRING.equals(in.peek())) {
                             String type = in.nextString();
                             if (PROTEUS_INSTANCE_HOLDER.isLayout(type)) {
@@ -114,7 +119,7 @@ public class ProteusTypeAdapterFactory implements TypeAdapterFactory {
                         }
                     }
                     while (in.hasNext()) {
-                        object.add(in.nextName(), read(in));
+                        object.add(nextName(in), read(in));
                     }
                     in.endObject();
                     return object;
@@ -258,9 +263,9 @@ public class ProteusTypeAdapterFactory implements TypeAdapterFactory {
                     return compileString(getContext(), in.nextString());
                 case NUMBER:
                     String number = in.nextString();
-                    return new Primitive(new LazilyParsedNumber(number));
+                    return Primitive.valueOf(new LazilyParsedNumber(number));
                 case BOOLEAN:
-                    return new Primitive(in.nextBoolean());
+                    return Primitive.valueOf(in.nextBoolean());
                 case NULL:
                     in.nextNull();
                     return Null.INSTANCE;
@@ -276,7 +281,7 @@ public class ProteusTypeAdapterFactory implements TypeAdapterFactory {
                     ObjectValue object = new ObjectValue();
                     in.beginObject();
                     if (in.hasNext()) {
-                        String name = in.nextName();
+                        String name = nextName(in);
                         if (TYPE.equals(name) && JsonToken.NUMBER.equals(in.peek())) {
                             int type = Integer.parseInt(in.nextString());
                             CustomValueTypeAdapter<? extends Value> adapter = getCustomValueTypeAdapter(type);
@@ -289,7 +294,7 @@ public class ProteusTypeAdapterFactory implements TypeAdapterFactory {
                         }
                     }
                     while (in.hasNext()) {
-                        object.add(in.nextName(), read(in));
+                        object.add(nextName(in), read(in));
                     }
                     in.endObject();
                     return object;
@@ -406,11 +411,48 @@ public class ProteusTypeAdapterFactory implements TypeAdapterFactory {
         return context;
     }
 
+    /**
+     * Sets the pool which the keys of parsed objects are interned in, or {@code null}, the
+     * default, to keep the keys as read. A pool is shared by every parse of this factory.
+     *
+     * @param pool the key pool.
+     */
+    public void setKeyPool(@Nullable KeyPool pool) {
+        this.keyPool = pool;
+    }
+
+    @Nullable
+    public KeyPool getKeyPool() {
+        return keyPool;
+    }
+
+    /**
+     * Reads UTF-8 encoded JSON like {@link #VALUE_TYPE_ADAPTER}, except that the members of
+     * objects and arrays are decoded only when they are first accessed. Large documents of
+     * which only a few members are bound are read much faster and hold little more memory
+     * than the bytes themselves. Since the members are decoded later, a malformed member
+     * throws a {@link JsonSyntaxException} when it is accessed rather than here.
+     *
+     * @param json the UTF-8 encoded JSON, which must not be modified afterwards.
+     * @return the value of the document.
+     * @throws JsonSyntaxException if the objects and arrays of the document are not balanced.
+     */
+    @NonNull
+    public Value readLazily(@NonNull byte[] json) {
+        return JsonIndex.build(this, json).root();
+    }
+
+    private String nextName(JsonReader in) throws IOException {
+        String name = in.nextName();
+        KeyPool pool = this.keyPool;
+        return null != pool ? pool.intern(name) : name;
+    }
+
     static Value compileString(Context context, String string) {
         if (Binding.isBindingValue(string)) {
-            return Binding.valueOf(string, context, PROTEUS_INSTANCE_HOLDER.getProteus().functions);
+            return Binding.compile(string, context, PROTEUS_INSTANCE_HOLDER.getProteus().functions);
         } else {
-            return new Primitive(string);
+            return Primitive.valueOf(string);
         }
     }
 
@@ -462,7 +504,7 @@ public class ProteusTypeAdapterFactory implements TypeAdapterFactory {
             ObjectValue extras = new ObjectValue();
             String name;
             while (in.hasNext()) {
-                name = in.nextName();
+                name = nextName(in);
                 if (ProteusConstants.DATA.equals(name)) {
                     data = readData(in);
                 } else {
@@ -23,6 +23,7 @@ import android.content.Context;
 
 import com.flipkart.android.proteus.Proteus;
 import com.flipkart.android.proteus.ProteusBuilder;
+import com.flipkart.android.proteus.value.Array;
 import com.flipkart.android.proteus.value.Color;
 import com.flipkart.android.proteus.value.ObjectValue;
 import com.flipkart.android.proteus.value.Primitive;
@@ -34,6 +35,9 @@ import org.junit.Test;
 import org.mockito.Mock;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -49,12 +53,13 @@ public class ProteusTypeAdapterFactoryTest {
     @Mock
     Context context = mock(Context.class);
 
+    private ProteusTypeAdapterFactory factory;
     private TypeAdapter<Value> adapter;
     private Proteus proteus;
 
     @Before
     public void before() {
-        ProteusTypeAdapterFactory factory = new ProteusTypeAdapterFactory(context);
+        factory = new ProteusTypeAdapterFactory(context);
         proteus = new ProteusBuilder().build();
         ProteusTypeAdapterFactory.PROTEUS_INSTANCE_HOLDER.setProteus(proteus);
         adapter = factory.COMPILED_VALUE_TYPE_ADAPTER;
@@ -68,6 +73,14 @@ public class ProteusTypeAdapterFactoryTest {
         assertThat(in, is(out));
     }
 
+    @Test
+    public void shared_numbers() throws IOException {
+        Array array = adapter.fromJson("[1, 1, 100000]").getAsArray();
+        assertThat(array.get(0) == array.get(1), is(true));
+        assertThat(array.get(0) == Primitive.valueOf(1), is(true));
+        assertThat(array.get(2).getAsInt(), is(100000));
+    }
+
     @Test
     public void object() throws IOException {
 
@@ -107,4 +120,137 @@ public class ProteusTypeAdapterFactoryTest {
         assertThat(1, is(1));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void key_pool() throws IOException {
+        factory.setKeyPool(new KeyPool());
+        ObjectValue out = factory.VALUE_TYPE_ADAPTER.fromJson(payload(2, 40)).getAsObject();
+
+        ObjectValue first = out.getAsArray("products").get(0).getAsObject();
+        ObjectValue second = out.getAsArray("products").get(1).getAsObject();
+        assertThat(first.getAsInteger("field7"), is(7));
+        assertThat(second.getAsInteger("field7"), is(107));
+        assertThat(key(first, "field39") == key(second, "field39"), is(true));
+    }
+
+    /**
+     * Objects of up to 32 keys share their keys through their shape, so the key pool makes a
+     * difference only for the larger objects.
+     */
+    @Test
+    public void key_pool_retained() throws IOException {
+        for (int fields : new int[]{20, 40}) {
+            String json = payload(500, fields);
+            int[] retained = new int[2];
+            for (int pooled = 0; pooled < 2; pooled++) {
+                factory.setKeyPool(pooled == 1 ? new KeyPool() : null);
+                Map<String, Boolean> keys = new IdentityHashMap<>();
+                collect(factory.VALUE_TYPE_ADAPTER.fromJson(json), keys);
+                retained[pooled] = keys.size();
+            }
+            // the fields and "products"
+            assertThat(retained[1], is(fields + 1));
+            assertThat(retained[0] > retained[1], is(fields > 32));
+        }
+    }
+
+    @Test
+    public void lazy() throws IOException {
+        String json = "{\"a\": 1, \"b\" : [true, false, null, -2.5e3, \"x\"],\n"
+                + " \"c\": {\"d\": \"q\\\"\\\\\\u00e9\\n\u20ac\", \"e\": {}, \"f\": []}, \"g\": \"@{a}\"}";
+        Value eager = factory.VALUE_TYPE_ADAPTER.fromJson(json);
+        Value lazy = factory.readLazily(json.getBytes(Charset.forName("UTF-8")));
+
+        assertThat(lazy, is(eager));
+        assertThat(lazy.getAsObject().getAsObject("c").getAsString("d"), is("q\"\\\u00e9\n\u20ac"));
+        assertThat(lazy.getAsObject().getAsArray("b").get(3).getAsDouble(), is(-2500.0));
+        assertThat(lazy.getAsObject().get("g").isBinding(), is(true));
+    }
+
+    @Test
+    public void lazy_layout() throws IOException {
+        String json = "{\"layout\": {\"type\": \"View\", \"id\": \"a\"}, \"item\": {\"type\": \"product\"}}";
+        ObjectValue lazy = factory.readLazily(json.getBytes(Charset.forName("UTF-8"))).getAsObject();
+
+        assertThat(lazy.get("layout").isLayout(), is(true));
+        assertThat(lazy.getAsObject("item").getAsString("type"), is("product"));
+    }
+
+    @Test
+    public void lazy_malformed() throws IOException {
+        ObjectValue lazy = factory.readLazily("{\"a\": {\"b\" 1}, \"c\": 2}".getBytes(Charset.forName("UTF-8"))).getAsObject();
+
+        assertThat(lazy.getAsInteger("c"), is(2));
+        try {
+            lazy.getAsObject("a").get("b");
+            throw new AssertionError("expected JsonSyntaxException");
+        } catch (com.google.gson.JsonSyntaxException e) {
+            // expected, the member is malformed
+        }
+        ObjectValue partial = factory.readLazily("{\"a\": {\"b\": 1, \"c\" 2}}".getBytes(Charset.forName("UTF-8")))
+                .getAsObject().getAsObject("a");
+        for (int i = 0; i < 2; i++) {
+            try {
+                partial.get("b");
+                throw new AssertionError("expected JsonSyntaxException");
+            } catch (com.google.gson.JsonSyntaxException e) {
+                // expected on every access, not only the first
+            }
+        }
+        try {
+            factory.readLazily("{\"a\": [}".getBytes(Charset.forName("UTF-8")));
+            throw new AssertionError("expected JsonSyntaxException");
+        } catch (com.google.gson.JsonSyntaxException e) {
+            // expected, the document is not balanced
+        }
+    }
+
+    @Test
+    public void lazy_payload() throws IOException {
+        byte[] json = payload(500, 20).getBytes(Charset.forName("UTF-8"));
+        Value eager = factory.VALUE_TYPE_ADAPTER.fromJson(new String(json, Charset.forName("UTF-8")));
+        Value lazy = factory.readLazily(json);
+
+        Array products = lazy.getAsObject().getAsArray("products");
+        long sum = 0;
+        for (int i = 0; i < products.size(); i++) {
+            sum += products.get(i).getAsObject().getAsInteger("field3") + products.get(i).getAsObject().getAsInteger("field17");
+        }
+        assertThat(sum, is(500L * 20 + 100L * 499 * 500));
+        assertThat(lazy, is(eager));
+    }
+
+    private static String payload(int size, int fields) {
+        StringBuilder builder = new StringBuilder("{\"products\":[");
+        for (int i = 0; i < size; i++) {
+            builder.append(i > 0 ? ",{" : "{");
+            for (int j = 0; j < fields; j++) {
+                builder.append(j > 0 ? ",\"field" : "\"field").append(j).append("\":").append(i * 100 + j);
+            }
+            builder.append('}');
+        }
+        return builder.append("]}").toString();
+    }
+
+    private static String key(ObjectValue object, String name) {
+        for (Map.Entry<String, Value> entry : object.entrySet()) {
+            if (entry.getKey().equals(name)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private static void collect(Value value, Map<String, Boolean> keys) {
+        if (value.isObject()) {
+            for (Map.Entry<String, Value> entry : value.getAsObject().entrySet()) {
+                keys.put(entry.getKey(), Boolean.TRUE);
+                collect(entry.getValue(), keys);
+            }
+        } else if (value.isArray()) {
+            for (int i = 0; i < value.getAsArray().size(); i++) {
+                collect(value.getAsArray().get(i), keys);
+            }
+        }
+    }
+
+}
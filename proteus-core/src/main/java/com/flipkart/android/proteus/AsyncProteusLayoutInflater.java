@@ -0,0 +1,272 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.ViewGroup;
+
+import com.flipkart.android.proteus.value.Layout;
+import com.flipkart.android.proteus.value.ObjectValue;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <p>
+ * AsyncProteusLayoutInflater inflates layouts with a {@link ProteusLayoutInflater} on a worker
+ * executor, and delivers the inflated {@link ProteusView} to a {@link Callback} on the main
+ * thread. The view is not attached to the parent, which is only read to create its layout
+ * params and data context; the caller adds the view once it is delivered.
+ * </p>
+ * <p>
+ * Every inflation runs inside a pass of the {@link BindingMemo} of the thread it runs on, see
+ * {@link ProteusContext#getBindingMemo()}, so inflating off the main thread does not share
+ * the memo with updates on it. Views are created unattached, which the views of the following
+ * parsers of this module support on any thread: View, ViewGroup, FrameLayout, LinearLayout,
+ * RelativeLayout, ScrollView, HorizontalScrollView, TextView, EditText, Button, ImageButton,
+ * ImageView, CheckBox, RatingBar, ProgressBar and HorizontalProgressBar. WebView must be
+ * created on the main thread, so layouts containing it must not be inflated asynchronously.
+ * Custom parsers, and the {@link ProteusLayoutInflater.ImageLoader} which is called during
+ * inflation for url drawables, must likewise not touch the view hierarchy or create handlers
+ * on the calling thread.
+ * </p>
+ * <p>
+ * A {@link Request} which is cancelled before its inflation starts is skipped, and one which
+ * is cancelled later is not delivered. Cancel the requests of a screen, or call
+ * {@link #cancelAll()}, when the screen goes away.
+ * </p>
+ */
+public class AsyncProteusLayoutInflater {
+
+    @Nullable
+    private static ExecutorService sDefaultExecutor;
+
+    @NonNull
+    private final ProteusLayoutInflater inflater;
+
+    @NonNull
+    private final Executor executor;
+
+    @NonNull
+    private final Executor main;
+
+    @NonNull
+    private final Set<Request> pending = Collections.newSetFromMap(new ConcurrentHashMap<Request, Boolean>());
+
+    /**
+     * Inflates on a single background thread shared by all the instances created with this
+     * constructor.
+     */
+    public AsyncProteusLayoutInflater(@NonNull ProteusLayoutInflater inflater) {
+        this(inflater, getDefaultExecutor());
+    }
+
+    public AsyncProteusLayoutInflater(@NonNull ProteusLayoutInflater inflater, @NonNull Executor executor) {
+        this(inflater, executor, new MainThreadExecutor());
+    }
+
+    /**
+     * @param executor the executor inflating the layouts.
+     * @param main     the executor delivering the views to the callbacks.
+     */
+    public AsyncProteusLayoutInflater(@NonNull ProteusLayoutInflater inflater, @NonNull Executor executor,
+                                      @NonNull Executor main) {
+        this.inflater = inflater;
+        this.executor = executor;
+        this.main = main;
+    }
+
+    @NonNull
+    private static synchronized ExecutorService getDefaultExecutor() {
+        if (null == sDefaultExecutor) {
+            sDefaultExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ProteusInflater");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return sDefaultExecutor;
+    }
+
+    /**
+     * Inflates the layout asynchronously, see {@link ProteusLayoutInflater#inflate(Layout, ObjectValue, ViewGroup, int)}.
+     *
+     * @return the request, to cancel the inflation.
+     */
+    @NonNull
+    public Request inflate(@NonNull final Layout layout, @NonNull final ObjectValue data, @Nullable final ViewGroup parent,
+                           final int dataIndex, @NonNull Callback callback) {
+        return submit(new Request(callback) {
+            @NonNull
+            @Override
+            ProteusView inflate() {
+                return inflater.inflate(layout, data, parent, dataIndex);
+            }
+        });
+    }
+
+    @NonNull
+    public Request inflate(@NonNull Layout layout, @NonNull ObjectValue data, @NonNull Callback callback) {
+        return inflate(layout, data, null, -1, callback);
+    }
+
+    /**
+     * Inflates the named layout asynchronously, see {@link ProteusLayoutInflater#inflate(String, ObjectValue, ViewGroup, int)}.
+     *
+     * @return the request, to cancel the inflation.
+     */
+    @NonNull
+    public Request inflate(@NonNull final String name, @NonNull final ObjectValue data, @Nullable final ViewGroup parent,
+                           final int dataIndex, @NonNull Callback callback) {
+        return submit(new Request(callback) {
+            @NonNull
+            @Override
+            ProteusView inflate() {
+                return inflater.inflate(name, data, parent, dataIndex);
+            }
+        });
+    }
+
+    @NonNull
+    public Request inflate(@NonNull String name, @NonNull ObjectValue data, @NonNull Callback callback) {
+        return inflate(name, data, null, -1, callback);
+    }
+
+    /**
+     * Cancels all the requests which have not been delivered yet.
+     */
+    public void cancelAll() {
+        for (Request request : pending) {
+            request.cancel();
+        }
+        pending.clear();
+    }
+
+    @NonNull
+    private Request submit(@NonNull final Request request) {
+        pending.add(request);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (request.isCancelled()) {
+                    pending.remove(request);
+                    return;
+                }
+                final ProteusView view;
+                try {
+                    view = request.inflate();
+                } catch (Throwable e) {
+                    // an Error too, eg. a StackOverflowError on a deep layout, so the request is always settled
+                    deliver(request, null, e);
+                    return;
+                }
+                deliver(request, view, null);
+            }
+        });
+        return request;
+    }
+
+    private void deliver(@NonNull final Request request, @Nullable final ProteusView view, @Nullable final Throwable error) {
+        main.execute(new Runnable() {
+            @Override
+            public void run() {
+                pending.remove(request);
+                if (request.isCancelled()) {
+                    return;
+                }
+                if (null != view) {
+                    request.callback.onInflated(view);
+                } else if (null != error) {
+                    request.callback.onError(error);
+                }
+            }
+        });
+    }
+
+    /**
+     * Callback
+     */
+    public interface Callback {
+
+        /**
+         * Called on the main thread with the inflated view, which is not attached to a parent.
+         */
+        void onInflated(@NonNull ProteusView view);
+
+        /**
+         * Called on the main thread if the inflation threw, eg. a
+         * {@link com.flipkart.android.proteus.exceptions.ProteusInflateException}, or failed
+         * with an {@link Error} such as a {@link StackOverflowError}.
+         */
+        void onError(@NonNull Throwable e);
+    }
+
+    /**
+     * Request is a pending asynchronous inflation.
+     */
+    public abstract static class Request {
+
+        @NonNull
+        private final Callback callback;
+
+        private volatile boolean cancelled;
+
+        Request(@NonNull Callback callback) {
+            this.callback = callback;
+        }
+
+        @NonNull
+        abstract ProteusView inflate();
+
+        /**
+         * Cancels the request. Its callback is not called after this method returns, if this
+         * method is called on the main thread.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static class MainThreadExecutor implements Executor {
+
+        @NonNull
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(@NonNull Runnable runnable) {
+            handler.post(runnable);
+        }
+    }
+}
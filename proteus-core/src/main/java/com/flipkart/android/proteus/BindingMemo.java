@@ -0,0 +1,242 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.flipkart.android.proteus.toolbox.Utils;
+import com.flipkart.android.proteus.value.Binding;
+import com.flipkart.android.proteus.value.ObjectValue;
+import com.flipkart.android.proteus.value.Value;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * BindingMemo remembers the result of evaluating a {@link Binding} on a data set for the
+ * duration of a single top level {@link ProteusView.Manager#update(com.flipkart.android.proteus.value.ObjectValue)}
+ * or {@link ProteusLayoutInflater#inflate} call. A binding which is used by many views in the
+ * same tree is therefore evaluated only once per pass. Results are keyed by the identity of the
+ * binding, the identity of the data and the data index, and for an {@link ObjectValue} also by
+ * its {@link ObjectValue#getVersion() version}. An object which is rewritten in place during a
+ * pass, like the reused scope of a {@link DataContext} or a snapshot which copies its storage,
+ * therefore does not hit the results of its previous contents.
+ * </p>
+ * <p>
+ * A pass is started with {@link #begin()} and finished with {@link #end()}. Passes can be nested,
+ * the memo is cleared when the outermost pass ends. Outside a pass {@link #get(Binding, Value, int)}
+ * always misses and {@link #put(Binding, Value, int, Value)} is a no-op. The objects nested in
+ * the data must not be mutated during a pass. This class is not thread safe, so a {@link ProteusContext} keeps one
+ * memo per thread.
+ * </p>
+ */
+public class BindingMemo {
+
+    private static final String TAG = "BindingMemo";
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAXIMUM_RETAINED_CAPACITY = 4096;
+
+    private Binding[] bindings;
+    private Value[] data;
+    private int[] indices;
+    private int[] versions;
+    private Value[] values;
+
+    private int size;
+    private int depth;
+
+    private long hits;
+    private long misses;
+
+    public BindingMemo() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private static int hash(Binding binding, Value data, int index) {
+        int h = System.identityHashCode(binding);
+        h = 31 * h + System.identityHashCode(data);
+        h = 31 * h + index;
+        return h ^ (h >>> 16);
+    }
+
+    private static int version(@Nullable Value data) {
+        return data instanceof ObjectValue ? ((ObjectValue) data).getVersion() : 0;
+    }
+
+    /**
+     * Starts a pass, or enters a nested one.
+     */
+    public void begin() {
+        depth++;
+    }
+
+    /**
+     * Leaves the current pass. When the outermost pass ends the memo is cleared.
+     */
+    public void end() {
+        if (depth == 0) {
+            return;
+        }
+        depth--;
+        if (depth == 0) {
+            if (ProteusConstants.isLoggingEnabled() && size > 0) {
+                Log.d(TAG, "pass finished with " + size + " entries, " + this);
+            }
+            clear();
+        }
+    }
+
+    /**
+     * @return {@code true} if a pass is in progress.
+     */
+    public boolean isActive() {
+        return depth > 0;
+    }
+
+    /**
+     * Returns the remembered result of evaluating {@code binding} on {@code data} at
+     * {@code index} during the current pass.
+     *
+     * @return the result, or {@code null} if it is not known.
+     */
+    @Nullable
+    public Value get(@NonNull Binding binding, @Nullable Value data, int index) {
+        if (depth == 0) {
+            return null;
+        }
+        int mask = bindings.length - 1;
+        int i = hash(binding, data, index) & mask;
+        while (bindings[i] != null) {
+            if (bindings[i] == binding && this.data[i] == data && indices[i] == index) {
+                if (versions[i] != version(data)) {
+                    break;
+                }
+                hits++;
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Remembers the result of evaluating {@code binding} on {@code data} at {@code index}
+     * till the end of the current pass.
+     */
+    public void put(@NonNull Binding binding, @Nullable Value data, int index, @NonNull Value value) {
+        if (depth == 0) {
+            return;
+        }
+        if (2 * (size + 1) > bindings.length) {
+            resize(bindings.length * 2);
+        }
+        if (insert(binding, data, index, version(data), value)) {
+            size++;
+        }
+    }
+
+    /**
+     * @return the number of lookups which found a result since the last {@link #resetCounters()}.
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups which did not find a result since the last {@link #resetCounters()}.
+     */
+    public long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return the fraction of lookups which found a result, between 0 and 1.
+     */
+    public float getHitRate() {
+        long total = hits + misses;
+        return total > 0 ? (float) hits / total : 0f;
+    }
+
+    public void resetCounters() {
+        hits = 0;
+        misses = 0;
+    }
+
+    @Override
+    public String toString() {
+        return Utils.LIB_NAME + ":" + TAG + "[hits=" + hits + ",misses=" + misses + ",hitRate=" + (int) (100 * getHitRate()) + "%]";
+    }
+
+    private boolean insert(Binding binding, Value data, int index, int version, Value value) {
+        int mask = bindings.length - 1;
+        int i = hash(binding, data, index) & mask;
+        while (bindings[i] != null) {
+            if (bindings[i] == binding && this.data[i] == data && indices[i] == index) {
+                versions[i] = version;
+                values[i] = value;
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        bindings[i] = binding;
+        this.data[i] = data;
+        indices[i] = index;
+        versions[i] = version;
+        values[i] = value;
+        return true;
+    }
+
+    private void resize(int capacity) {
+        Binding[] bindings = this.bindings;
+        Value[] data = this.data;
+        int[] indices = this.indices;
+        int[] versions = this.versions;
+        Value[] values = this.values;
+        allocate(capacity);
+        for (int i = 0; i < bindings.length; i++) {
+            if (bindings[i] != null) {
+                insert(bindings[i], data[i], indices[i], versions[i], values[i]);
+            }
+        }
+    }
+
+    private void clear() {
+        if (bindings.length > MAXIMUM_RETAINED_CAPACITY) {
+            allocate(INITIAL_CAPACITY);
+        } else if (size > 0) {
+            Arrays.fill(bindings, null);
+            Arrays.fill(data, null);
+            Arrays.fill(values, null);
+        }
+        size = 0;
+    }
+
+    private void allocate(int capacity) {
+        bindings = new Binding[capacity];
+        data = new Value[capacity];
+        indices = new int[capacity];
+        versions = new int[capacity];
+        values = new Value[capacity];
+    }
+}
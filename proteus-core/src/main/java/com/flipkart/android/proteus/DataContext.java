@@ -23,10 +23,13 @@ import android.content.Context;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import com.flipkart.android.proteus.value.Binding;
 import com.flipkart.android.proteus.value.Null;
 import com.flipkart.android.proteus.value.ObjectValue;
 import com.flipkart.android.proteus.value.Value;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -37,13 +40,21 @@ public class DataContext {
     private final boolean hasOwnProperties;
 
     @Nullable
-    private final Map<String, Value> scope;
+    private final Scope scope;
 
     private final int index;
 
     private ObjectValue data;
 
-    private DataContext(@Nullable Map<String, Value> scope, int index) {
+    /**
+     * The object the scope was last evaluated into, rewritten in place by later updates.
+     */
+    @Nullable
+    private ObjectValue scopeData;
+
+    private boolean claimed;
+
+    private DataContext(@Nullable Scope scope, int index) {
         this.scope = scope;
         this.index = index;
         this.hasOwnProperties = scope != null;
@@ -51,7 +62,7 @@ public class DataContext {
 
     public DataContext(DataContext dataContext) {
         this.data = dataContext.getData();
-        this.scope = dataContext.getScope();
+        this.scope = dataContext.scope;
         this.index = dataContext.getIndex();
         this.hasOwnProperties = false;
     }
@@ -64,6 +75,11 @@ public class DataContext {
 
     public static DataContext create(@NonNull Context context, @Nullable ObjectValue data,
                                      int dataIndex, @Nullable Map<String, Value> scope) {
+        return create(context, data, dataIndex, null != scope ? Scope.compile(scope) : null);
+    }
+
+    public static DataContext create(@NonNull Context context, @Nullable ObjectValue data,
+                                     int dataIndex, @Nullable Scope scope) {
         DataContext dataContext = new DataContext(scope, dataIndex);
         dataContext.update(context, data);
         return dataContext;
@@ -79,34 +95,76 @@ public class DataContext {
             return;
         }
 
-        ObjectValue out = new ObjectValue();
+        ObjectValue out = scope.reusable ? scopeData : null;
+        if (null == out) {
+            out = new ObjectValue();
+        }
+        BindingMemo memo = context instanceof ProteusContext ? ((ProteusContext) context).getBindingMemo() : null;
 
-        for (Map.Entry<String, Value> entry : scope.entrySet()) {
-            String key = entry.getKey();
-            Value value = entry.getValue();
+        String[] keys = scope.keys;
+        for (int i = 0; i < keys.length; i++) {
+            Binding binding = scope.bindings[i];
             Value resolved;
-            if (value.isBinding()) {
-                resolved = value.getAsBinding().evaluate(context, out, index);
+            if (null == binding) {
+                resolved = scope.values[i];
+            } else if (scope.local[i]) {
+                resolved = binding.evaluate(context, out, index);
                 if (resolved == Null.INSTANCE) {
-                    resolved = value.getAsBinding().evaluate(context, in, index);
+                    resolved = evaluate(context, memo, binding, in);
                 }
             } else {
-                resolved = value;
+                resolved = evaluate(context, memo, binding, in);
+            }
+            if (out.get(keys[i]) != resolved) {
+                out.add(keys[i], resolved);
             }
-            out.add(key, resolved);
         }
 
+        scopeData = out;
         data = out;
     }
 
+    /**
+     * Evaluates the binding on the input data. Unlike the scope being built the input
+     * does not change during a pass, so the result can be shared through the {@link BindingMemo}.
+     */
+    private Value evaluate(@NonNull Context context, @Nullable BindingMemo memo, @NonNull Binding binding, @NonNull ObjectValue in) {
+        Value resolved = null != memo ? memo.get(binding, in, index) : null;
+        if (null == resolved) {
+            resolved = binding.evaluate(context, in, index);
+            if (null != memo) {
+                memo.put(binding, in, index, resolved);
+            }
+        }
+        return resolved;
+    }
+
     public DataContext createChild(@NonNull Context context, @NonNull Map<String, Value> scope, int dataIndex) {
         return create(context, data, dataIndex, scope);
     }
 
+    public DataContext createChild(@NonNull Context context, @NonNull Scope scope, int dataIndex) {
+        return create(context, data, dataIndex, scope);
+    }
+
     public DataContext copy() {
         return new DataContext(this);
     }
 
+    /**
+     * Marks this data context as owned by the view it was created for. Views without a scope
+     * of their own share the data context of their parent, and find it already claimed.
+     *
+     * @return {@code true} if the data context was not claimed before.
+     */
+    public boolean claim() {
+        if (claimed) {
+            return false;
+        }
+        claimed = true;
+        return true;
+    }
+
     public ObjectValue getData() {
         return data;
     }
@@ -117,7 +175,7 @@ public class DataContext {
 
     @Nullable
     public Map<String, Value> getScope() {
-        return scope;
+        return null != scope ? scope.map : null;
     }
 
     public boolean hasOwnProperties() {
@@ -127,4 +185,82 @@ public class DataContext {
     public int getIndex() {
         return index;
     }
+
+    /**
+     * <p>
+     * Scope is the compiled form of the {@code data} of a {@link com.flipkart.android.proteus.value.Layout},
+     * made once per layout by {@link com.flipkart.android.proteus.value.Layout#getScope()}.
+     * </p>
+     * <p>
+     * A binding whose data paths start with a key of the scope reads the entries evaluated
+     * before it, so it is evaluated on the scope first and on the input data if that gives
+     * {@link Null}. Any other binding reads only the input data and is evaluated on it directly.
+     * Unless a binding refers to its own entry or to a later one, which it must not see, the
+     * scope object of a {@link DataContext} is reused across updates and only the entries whose
+     * value changed are rewritten.
+     * </p>
+     */
+    public static class Scope {
+
+        @NonNull
+        final Map<String, Value> map;
+
+        @NonNull
+        final String[] keys;
+
+        @NonNull
+        final Value[] values;
+
+        @NonNull
+        final Binding[] bindings;
+
+        @NonNull
+        final boolean[] local;
+
+        final boolean reusable;
+
+        private Scope(@NonNull Map<String, Value> map) {
+            int size = map.size();
+            this.map = map;
+            this.keys = map.keySet().toArray(new String[size]);
+            this.values = new Value[size];
+            this.bindings = new Binding[size];
+            this.local = new boolean[size];
+
+            boolean reusable = true;
+            List<String[]> paths = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                Value value = map.get(keys[i]);
+                values[i] = value;
+                if (!value.isBinding()) {
+                    continue;
+                }
+                bindings[i] = value.getAsBinding();
+                paths.clear();
+                DependencyIndex.dependencies(value, paths);
+                for (String[] path : paths) {
+                    int position = path.length > 0 && !DependencyIndex.WILDCARD.equals(path[0]) ? indexOf(path[0]) : size;
+                    if (position >= 0) {
+                        local[i] = true;
+                        reusable &= position < i;
+                    }
+                }
+            }
+            this.reusable = reusable;
+        }
+
+        @NonNull
+        public static Scope compile(@NonNull Map<String, Value> map) {
+            return new Scope(map);
+        }
+
+        private int indexOf(@NonNull String key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
 }
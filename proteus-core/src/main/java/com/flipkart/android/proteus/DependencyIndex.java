@@ -0,0 +1,274 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.flipkart.android.proteus.value.Array;
+import com.flipkart.android.proteus.value.Binding;
+import com.flipkart.android.proteus.value.NestedBinding;
+import com.flipkart.android.proteus.value.ObjectValue;
+import com.flipkart.android.proteus.value.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DependencyIndex
+ * <p>
+ * Indexes items by the data paths they read, so that a set of changed paths can be mapped to the
+ * items affected by them without evaluating anything. Paths are stored in a trie of segments,
+ * eg. {@code cart.items[0].price} becomes {@code cart → items → 0 → price}. An item is affected by
+ * a changed path when either path is a prefix of the other: an attribute bound to {@code cart}
+ * is affected by a change to {@code cart.count}, and one bound to {@code cart.count} is affected
+ * when {@code cart} is replaced as a whole.
+ * </p>
+ * <p>
+ * The array references {@code $index}, {@code $length} and {@code $last} match any segment.
+ * Bindings whose dependencies cannot be determined (custom {@link Binding} types) are indexed at
+ * the root and are affected by every change, and so are calls of functions which may read more of
+ * the data than their arguments, see {@link Function#readsOnlyArguments()}. Other
+ * {@link com.flipkart.android.proteus.value.Binding.FunctionBinding}s depend only on their arguments.
+ * </p>
+ */
+public class DependencyIndex<T> {
+
+    static final String WILDCARD = "*";
+
+    private static final String[] ROOT = new String[0];
+
+    @NonNull
+    private final Node<T> root = new Node<>();
+
+    private boolean empty = true;
+
+    /**
+     * Splits a data path into its segments, eg. {@code a.b[0].c} into {@code [a, b, 0, c]}.
+     */
+    @NonNull
+    public static String[] segments(@NonNull String path) {
+        List<String> segments = new ArrayList<>();
+        int length = path.length();
+        int start = 0;
+        char c;
+        for (int i = 0; i <= length; i++) {
+            c = i < length ? path.charAt(i) : '.';
+            if (c == '.' || c == '[' || c == ']') {
+                if (i > start) {
+                    segments.add(segment(path.substring(start, i)));
+                }
+                start = i + 1;
+            }
+        }
+        return segments.toArray(new String[segments.size()]);
+    }
+
+    /**
+     * Splits each of the data paths into its segments.
+     */
+    @NonNull
+    public static String[][] segments(@NonNull Collection<String> paths) {
+        String[][] segments = new String[paths.size()][];
+        int i = 0;
+        for (String path : paths) {
+            segments[i++] = segments(path);
+        }
+        return segments;
+    }
+
+    private static String segment(String segment) {
+        if (Binding.INDEX.equals(segment)
+                || Binding.ARRAY_DATA_LENGTH_REFERENCE.equals(segment)
+                || Binding.ARRAY_DATA_LAST_INDEX_REFERENCE.equals(segment)) {
+            return WILDCARD;
+        }
+        return segment;
+    }
+
+    /**
+     * Indexes the item under every data path the value reads.
+     *
+     * @return {@code true} if the value reads any data.
+     */
+    public boolean add(@NonNull Value value, @NonNull T item) {
+        List<String[]> paths = new ArrayList<>();
+        dependencies(value, paths);
+        for (String[] path : paths) {
+            add(path, item);
+        }
+        return !paths.isEmpty();
+    }
+
+    public void add(@NonNull String[] path, @NonNull T item) {
+        Node<T> node = root;
+        for (String segment : path) {
+            node = node.child(segment);
+        }
+        node.add(item);
+        empty = false;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Collects the items affected by any of the changed paths into {@code out}. Each item is
+     * collected at most once.
+     */
+    public void collect(@NonNull String[][] changed, @NonNull Collection<T> out) {
+        for (String[] path : changed) {
+            collect(root, path, 0, out);
+        }
+    }
+
+    /**
+     * @return {@code true} if any of the changed paths affects an item in this index.
+     */
+    public boolean isAffected(@NonNull String[][] changed) {
+        if (empty) {
+            return false;
+        }
+        List<T> out = new ArrayList<>(1);
+        for (String[] path : changed) {
+            collect(root, path, 0, out);
+            if (!out.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> void collect(@NonNull Node<T> node, @NonNull String[] path, int depth, @NonNull Collection<T> out) {
+        if (depth == path.length) {
+            node.collectAll(out);
+            return;
+        }
+        node.collect(out);
+        if (null == node.children) {
+            return;
+        }
+        String segment = path[depth];
+        if (WILDCARD.equals(segment)) {
+            for (Node<T> child : node.children.values()) {
+                collect(child, path, depth + 1, out);
+            }
+            return;
+        }
+        Node<T> child = node.children.get(segment);
+        if (null != child) {
+            collect(child, path, depth + 1, out);
+        }
+        child = node.children.get(WILDCARD);
+        if (null != child) {
+            collect(child, path, depth + 1, out);
+        }
+    }
+
+    static void dependencies(@NonNull Value value, @NonNull List<String[]> out) {
+        if (value.isBinding()) {
+            Binding binding = value.getAsBinding();
+            if (binding instanceof Binding.DataBinding) {
+                String path = ((Binding.DataBinding) binding).getPath();
+                if (!Binding.INDEX.equals(path)) {
+                    out.add(segments(path));
+                }
+            } else if (binding instanceof Binding.FunctionBinding) {
+                Binding.FunctionBinding function = (Binding.FunctionBinding) binding;
+                if (!function.function.readsOnlyArguments()) {
+                    out.add(ROOT);
+                    return;
+                }
+                Iterator<Value> arguments = function.getTokens();
+                while (arguments.hasNext()) {
+                    dependencies(arguments.next(), out);
+                }
+            } else if (binding instanceof NestedBinding) {
+                dependencies(((NestedBinding) binding).getValue(), out);
+            } else {
+                out.add(ROOT);
+            }
+        } else if (value.isObject()) {
+            ObjectValue object = value.getAsObject();
+            for (String key : object.keys()) {
+                dependencies(object.peek(key), out);
+            }
+        } else if (value.isArray()) {
+            Array array = value.getAsArray();
+            for (int i = 0; i < array.size(); i++) {
+                dependencies(array.peek(i), out);
+            }
+        }
+    }
+
+    private static class Node<T> {
+
+        @Nullable
+        Map<String, Node<T>> children;
+
+        @Nullable
+        List<T> items;
+
+        Node<T> child(String segment) {
+            if (null == children) {
+                children = new HashMap<>(4);
+            }
+            Node<T> child = children.get(segment);
+            if (null == child) {
+                child = new Node<>();
+                children.put(segment, child);
+            }
+            return child;
+        }
+
+        void add(T item) {
+            if (null == items) {
+                items = new ArrayList<>(2);
+            }
+            if (!items.contains(item)) {
+                items.add(item);
+            }
+        }
+
+        void collect(Collection<T> out) {
+            if (null != items) {
+                for (T item : items) {
+                    if (!out.contains(item)) {
+                        out.add(item);
+                    }
+                }
+            }
+        }
+
+        void collectAll(Collection<T> out) {
+            collect(out);
+            if (null != children) {
+                for (Node<T> child : children.values()) {
+                    child.collectAll(out);
+                }
+            }
+        }
+    }
+}
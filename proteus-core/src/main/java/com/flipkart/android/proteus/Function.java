@@ -19,20 +19,25 @@
 
 package com.flipkart.android.proteus;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.support.annotation.NonNull;
 
 import com.flipkart.android.proteus.parser.ParseHelper;
+import com.flipkart.android.proteus.toolbox.FormatTemplate;
+import com.flipkart.android.proteus.toolbox.FormatterCache;
 import com.flipkart.android.proteus.toolbox.Utils;
 import com.flipkart.android.proteus.value.Array;
+import com.flipkart.android.proteus.value.Evaluator;
 import com.flipkart.android.proteus.value.Primitive;
 import com.flipkart.android.proteus.value.Value;
 
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Locale;
 
 /**
  * @author Aditya Sharat on 18-05-2015.
@@ -52,13 +57,25 @@ public abstract class Function {
         public String getName() {
             return "noop";
         }
+
+        @Override
+        public boolean readsOnlyArguments() {
+            return true;
+        }
     };
 
-    @SuppressLint("SimpleDateFormat")
     public static final Function DATE = new Function() {
 
-        private SimpleDateFormat from = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        private SimpleDateFormat to = new SimpleDateFormat("E, d MMM");
+        private static final String FROM = "yyyy-MM-dd HH:mm:ss";
+        private static final String TO = "E, d MMM";
+
+        private final FormatterCache<SimpleDateFormat> formatters = new FormatterCache<SimpleDateFormat>() {
+            @NonNull
+            @Override
+            protected SimpleDateFormat create(@NonNull String pattern, @NonNull Locale locale) {
+                return new SimpleDateFormat(pattern, locale);
+            }
+        };
 
         @NonNull
         @Override
@@ -69,25 +86,22 @@ public abstract class Function {
         }
 
         private SimpleDateFormat getFromFormat(Value[] arguments) {
-            if (arguments.length > 2) {
-                return new SimpleDateFormat(arguments[2].getAsString());
-            } else {
-                return from;
-            }
+            return formatters.get(arguments.length > 2 ? arguments[2].getAsString() : FROM);
         }
 
         private SimpleDateFormat getToFormat(Value[] arguments) {
-            if (arguments.length > 1) {
-                return new SimpleDateFormat(arguments[1].getAsString());
-            } else {
-                return to;
-            }
+            return formatters.get(arguments.length > 1 ? arguments[1].getAsString() : TO);
         }
 
         @Override
         public String getName() {
             return "date";
         }
+
+        @Override
+        public boolean readsOnlyArguments() {
+            return true;
+        }
     };
 
     public static final Function FORMAT = new Function() {
@@ -102,10 +116,52 @@ public abstract class Function {
             return new Primitive(String.format(template, (Object[]) values));
         }
 
+        /**
+         * Parses a literal template once, see {@link FormatTemplate}.
+         */
+        @NonNull
+        @Override
+        public Function specialize(@NonNull Value[] arguments) {
+            if (arguments.length < 1 || !arguments[0].isPrimitive()) {
+                return this;
+            }
+            final FormatTemplate template = FormatTemplate.compile(arguments[0].getAsString());
+            if (null == template) {
+                return this;
+            }
+            return new Function() {
+                @NonNull
+                @Override
+                public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
+                    return new Primitive(template.format(arguments, 1));
+                }
+
+                @Override
+                public String getName() {
+                    return FORMAT.getName();
+                }
+
+                @Override
+                public boolean isPure() {
+                    return true;
+                }
+            };
+        }
+
         @Override
         public String getName() {
             return "format";
         }
+
+        /**
+         * Not pure, since {@link String#format(String, Object...)} reads the default locale, eg.
+         * for {@code %S} or {@code %d}. Only the templates compiled by {@link #specialize(Value[])}
+         * do not, and are folded.
+         */
+        @Override
+        public boolean readsOnlyArguments() {
+            return true;
+        }
     };
 
     public static final Function JOIN = new Function() {
@@ -129,49 +185,59 @@ public abstract class Function {
         public String getName() {
             return "join";
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     };
 
     public static final Function NUMBER = new Function() {
 
-        private final DecimalFormat DEFAULT_FORMATTER = new DecimalFormat("#,###");
+        private static final String DEFAULT_PATTERN = "#,###";
+
+        private final FormatterCache<DecimalFormat> formatters = new FormatterCache<DecimalFormat>() {
+            @NonNull
+            @Override
+            protected DecimalFormat create(@NonNull String pattern, @NonNull Locale locale) {
+                DecimalFormat formatter = new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(locale));
+                formatter.setRoundingMode(RoundingMode.FLOOR);
+                formatter.setMinimumFractionDigits(0);
+                formatter.setMaximumFractionDigits(2);
+                return formatter;
+            }
+        };
 
         @NonNull
         @Override
         public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
             double number = Double.parseDouble(arguments[0].getAsString());
-            DecimalFormat formatter = getFormatter(arguments);
-            formatter.setRoundingMode(RoundingMode.FLOOR);
-            formatter.setMinimumFractionDigits(0);
-            formatter.setMaximumFractionDigits(2);
+            DecimalFormat formatter = formatters.get(arguments.length > 1 ? arguments[1].getAsString() : DEFAULT_PATTERN);
             return new Primitive(formatter.format(number));
         }
 
-        private DecimalFormat getFormatter(Value[] arguments) {
-            if (arguments.length > 1) {
-                return new DecimalFormat(arguments[1].getAsString());
-            }
-            return DEFAULT_FORMATTER;
-        }
-
         @Override
         public String getName() {
             return "number";
         }
+
+        @Override
+        public boolean readsOnlyArguments() {
+            return true;
+        }
     };
 
     // Mathematical
 
-    public static final Function ADD = new Function() {
-        @NonNull
+    public static final Function ADD = new Arithmetic() {
         @Override
-        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
-            double sum = 0;
-
-            for (Value argument : arguments) {
-                sum = sum + argument.getAsDouble();
-            }
+        public double identity() {
+            return 0;
+        }
 
-            return new Primitive(sum);
+        @Override
+        public double apply(double x, double y) {
+            return x + y;
         }
 
         @Override
@@ -180,17 +246,10 @@ public abstract class Function {
         }
     };
 
-    public static final Function SUBTRACT = new Function() {
-        @NonNull
+    public static final Function SUBTRACT = new Arithmetic() {
         @Override
-        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
-            double sum = arguments[0].getAsDouble();
-
-            for (int i = 1; i < arguments.length; i++) {
-                sum = sum - arguments[i].getAsDouble();
-            }
-
-            return new Primitive(sum);
+        public double apply(double x, double y) {
+            return x - y;
         }
 
         @Override
@@ -199,17 +258,15 @@ public abstract class Function {
         }
     };
 
-    public static final Function MULTIPLY = new Function() {
-        @NonNull
+    public static final Function MULTIPLY = new Arithmetic() {
         @Override
-        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
-            double product = 1;
-
-            for (Value argument : arguments) {
-                product = product * argument.getAsDouble();
-            }
+        public double identity() {
+            return 1;
+        }
 
-            return new Primitive(product);
+        @Override
+        public double apply(double x, double y) {
+            return x * y;
         }
 
         @Override
@@ -218,17 +275,10 @@ public abstract class Function {
         }
     };
 
-    public static final Function DIVIDE = new Function() {
-        @NonNull
+    public static final Function DIVIDE = new Arithmetic() {
         @Override
-        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
-            double quotient = arguments[0].getAsDouble();
-
-            for (int i = 1; i < arguments.length; i++) {
-                quotient = quotient / arguments[i].getAsDouble();
-            }
-
-            return new Primitive(quotient);
+        public double apply(double x, double y) {
+            return x / y;
         }
 
         @Override
@@ -237,16 +287,10 @@ public abstract class Function {
         }
     };
 
-    public static final Function MODULO = new Function() {
-        @NonNull
-        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
-            double remainder = arguments[0].getAsDouble();
-
-            for (int i = 1; i < arguments.length; i++) {
-                remainder = remainder % arguments[i].getAsDouble();
-            }
-
-            return new Primitive(remainder);
+    public static final Function MODULO = new Arithmetic() {
+        @Override
+        public double apply(double x, double y) {
+            return x % y;
         }
 
         @Override
@@ -257,16 +301,16 @@ public abstract class Function {
 
     // Logical
 
-    public static final Function AND = new Function() {
+    public static final Function AND = new Lazy() {
         @NonNull
         @Override
-        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
-            if (arguments.length < 1) {
+        public Value call(Context context, Value data, int dataIndex, Arguments arguments) throws Exception {
+            if (arguments.size() < 1) {
                 return ProteusConstants.FALSE;
             }
             boolean bool = true;
-            for (Value argument : arguments) {
-                bool = ParseHelper.parseBoolean(argument);
+            for (int i = 0; i < arguments.size(); i++) {
+                bool = ParseHelper.parseBoolean(arguments.get(i));
                 if (!bool) {
                     break;
                 }
@@ -279,18 +323,23 @@ public abstract class Function {
         public String getName() {
             return "and";
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     };
 
-    public static final Function OR = new Function() {
+    public static final Function OR = new Lazy() {
         @NonNull
         @Override
-        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
-            if (arguments.length < 1) {
+        public Value call(Context context, Value data, int dataIndex, Arguments arguments) throws Exception {
+            if (arguments.size() < 1) {
                 return ProteusConstants.FALSE;
             }
             boolean bool = false;
-            for (Value argument : arguments) {
-                bool = ParseHelper.parseBoolean(argument);
+            for (int i = 0; i < arguments.size(); i++) {
+                bool = ParseHelper.parseBoolean(arguments.get(i));
                 if (bool) {
                     break;
                 }
@@ -303,6 +352,11 @@ public abstract class Function {
         public String getName() {
             return "or";
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     };
 
     // Unary
@@ -321,6 +375,11 @@ public abstract class Function {
         public String getName() {
             return "not";
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     };
 
     // Comparison
@@ -347,24 +406,17 @@ public abstract class Function {
         public String getName() {
             return "eq";
         }
-    };
 
-    public static final Function LESS_THAN = new Function() {
-        @NonNull
         @Override
-        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
-            if (arguments.length < 2) {
-                return ProteusConstants.FALSE;
-            }
-
-            Value x = arguments[0];
-            Value y = arguments[1];
-            boolean bool = false;
-            if (x.isPrimitive() && y.isPrimitive()) {
-                bool = x.getAsPrimitive().getAsDouble() < y.getAsPrimitive().getAsDouble();
-            }
+        public boolean isPure() {
+            return true;
+        }
+    };
 
-            return bool ? ProteusConstants.TRUE : ProteusConstants.FALSE;
+    public static final Function LESS_THAN = new Comparison() {
+        @Override
+        public boolean compare(double x, double y) {
+            return x < y;
         }
 
         @Override
@@ -373,22 +425,10 @@ public abstract class Function {
         }
     };
 
-    public static final Function GREATER_THAN = new Function() {
-        @NonNull
+    public static final Function GREATER_THAN = new Comparison() {
         @Override
-        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
-            if (arguments.length < 2) {
-                return ProteusConstants.FALSE;
-            }
-
-            Value x = arguments[0];
-            Value y = arguments[1];
-            boolean bool = false;
-            if (x.isPrimitive() && y.isPrimitive()) {
-                bool = x.getAsPrimitive().getAsDouble() > y.getAsPrimitive().getAsDouble();
-            }
-
-            return bool ? ProteusConstants.TRUE : ProteusConstants.FALSE;
+        public boolean compare(double x, double y) {
+            return x > y;
         }
 
         @Override
@@ -397,22 +437,10 @@ public abstract class Function {
         }
     };
 
-    public static final Function LESS_THAN_OR_EQUALS = new Function() {
-        @NonNull
+    public static final Function LESS_THAN_OR_EQUALS = new Comparison() {
         @Override
-        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
-            if (arguments.length < 2) {
-                return ProteusConstants.FALSE;
-            }
-
-            Value x = arguments[0];
-            Value y = arguments[1];
-            boolean bool = false;
-            if (x.isPrimitive() && y.isPrimitive()) {
-                bool = x.getAsPrimitive().getAsDouble() <= y.getAsPrimitive().getAsDouble();
-            }
-
-            return bool ? ProteusConstants.TRUE : ProteusConstants.FALSE;
+        public boolean compare(double x, double y) {
+            return x <= y;
         }
 
         @Override
@@ -421,22 +449,10 @@ public abstract class Function {
         }
     };
 
-    public static final Function GREATER_THAN_OR_EQUALS = new Function() {
-        @NonNull
+    public static final Function GREATER_THAN_OR_EQUALS = new Comparison() {
         @Override
-        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
-            if (arguments.length < 2) {
-                return ProteusConstants.FALSE;
-            }
-
-            Value x = arguments[0];
-            Value y = arguments[1];
-            boolean bool = false;
-            if (x.isPrimitive() && y.isPrimitive()) {
-                bool = x.getAsPrimitive().getAsDouble() >= y.getAsPrimitive().getAsDouble();
-            }
-
-            return bool ? ProteusConstants.TRUE : ProteusConstants.FALSE;
+        public boolean compare(double x, double y) {
+            return x >= y;
         }
 
         @Override
@@ -447,21 +463,26 @@ public abstract class Function {
 
     // Conditional
 
-    public static final Function TERNARY = new Function() {
+    public static final Function TERNARY = new Lazy() {
         @NonNull
         @Override
-        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
-            Value i = arguments[0];
-            Value t = arguments[1];
-            Value e = arguments[2];
+        public Value call(Context context, Value data, int dataIndex, Arguments arguments) throws Exception {
+            if (arguments.size() < 3) {
+                throw new IllegalArgumentException("ternary needs 3 arguments");
+            }
 
-            return ParseHelper.parseBoolean(i) ? t : e;
+            return ParseHelper.parseBoolean(arguments.get(0)) ? arguments.get(1) : arguments.get(2);
         }
 
         @Override
         public String getName() {
             return "ternary";
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     };
 
     // String
@@ -481,6 +502,11 @@ public abstract class Function {
         public String getName() {
             return "charAt";
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     };
 
     //String.contains()
@@ -491,13 +517,18 @@ public abstract class Function {
             String string = arguments[0].getAsString();
             String substring = arguments[1].getAsString();
             boolean bool = string.contains(substring);
-            return new Primitive(bool);
+            return Primitive.valueOf(bool);
         }
 
         @Override
         public String getName() {
             return "contains";
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     };
 
     //String.endsWith()
@@ -509,13 +540,18 @@ public abstract class Function {
         @Override
         public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
             String string = arguments[0].getAsString();
-            return new Primitive(ProteusConstants.EMPTY.equals(string));
+            return Primitive.valueOf(ProteusConstants.EMPTY.equals(string));
         }
 
         @Override
         public String getName() {
             return "isEmpty";
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     };
 
     //String.lastIndexOf()
@@ -532,13 +568,18 @@ public abstract class Function {
             } else if (value.isArray()) {
                 length = value.getAsArray().size();
             }
-            return new Primitive(length);
+            return Primitive.valueOf(length);
         }
 
         @Override
         public String getName() {
             return "length";
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     };
 
     //String.matches()
@@ -564,6 +605,11 @@ public abstract class Function {
         public String getName() {
             return "trim";
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     };
 
     //String.subSequence()
@@ -597,6 +643,11 @@ public abstract class Function {
         public String getName() {
             return "max";
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     };
 
     //Math.min
@@ -619,6 +670,11 @@ public abstract class Function {
         public String getName() {
             return "min";
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     };
 
     // Array
@@ -632,7 +688,7 @@ public abstract class Function {
             int end = getEnd(in, arguments);
             Array out = new Array();
             for (int i = start; i < end; i++) {
-                out.add(in.get(i));
+                out.add(in.peek(i));
             }
             return out;
         }
@@ -673,10 +729,220 @@ public abstract class Function {
         public String getName() {
             return "slice";
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     };
 
+    /**
+     * The {@code arguments} array may be reused once the call returns, copy it if
+     * it has to be retained.
+     */
     @NonNull
     public abstract Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception;
 
     public abstract String getName();
+
+    /**
+     * Called when a {@link com.flipkart.android.proteus.value.Binding.FunctionBinding} is created
+     * with the unevaluated arguments of the call. A function can return an instance specialized
+     * for those arguments, eg. {@link #FORMAT} parses a literal template once instead of on every
+     * call. The specialized instance must return the same results as this function.
+     *
+     * @return this function by default.
+     */
+    @NonNull
+    public Function specialize(@NonNull Value[] arguments) {
+        return this;
+    }
+
+    /**
+     * A pure function always returns the same result for the same arguments and does not
+     * read the {@code context}, the {@code data} or the default locale. Calls to a pure function whose arguments
+     * are all {@link Primitive} literals are folded into their result when a layout is parsed,
+     * see {@link com.flipkart.android.proteus.value.Binding.FunctionBinding#getConstant()}.
+     *
+     * @return {@code true} if the function is pure, {@code false} by default.
+     */
+    public boolean isPure() {
+        return false;
+    }
+
+    /**
+     * A function is passed the whole {@code data}, but most only read the values of their
+     * arguments. Views bound to a call of a function which does not declare so are updated by
+     * {@link ProteusView.IncrementalManager#update(com.flipkart.android.proteus.value.ObjectValue, java.util.Collection)}
+     * on a change to any path, since the paths it reads are not known. A function which reads
+     * the {@code data} itself must not return {@code true}.
+     *
+     * @return {@code true} if the function reads the data only through its arguments,
+     * {@link #isPure()} by default.
+     */
+    public boolean readsOnlyArguments() {
+        return isPure();
+    }
+
+    /**
+     * <p>
+     * Lazy is a {@link Function} which receives its arguments unevaluated, as {@link Arguments}
+     * which are evaluated when they are first read. Functions like {@link #TERNARY}, {@link #AND}
+     * and {@link #OR} use it to skip the arguments which do not decide the result, eg. only one
+     * branch of a ternary is evaluated.
+     * </p>
+     */
+    public abstract static class Lazy extends Function {
+
+        @NonNull
+        public abstract Value call(Context context, Value data, int dataIndex, Arguments arguments) throws Exception;
+
+        /**
+         * Calls the function with arguments which are already evaluated.
+         */
+        @NonNull
+        @Override
+        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
+            return call(context, data, dataIndex, new Arguments(arguments).bind(context, data, dataIndex));
+        }
+    }
+
+    /**
+     * <p>
+     * Arguments of a {@link Lazy} function. Each argument is evaluated against the data when it is
+     * first read by {@link #get(int)}, and the result is kept for the rest of the call.
+     * </p>
+     */
+    public static class Arguments {
+
+        @NonNull
+        private final Evaluator[] evaluators;
+
+        @NonNull
+        private final Value[] evaluated;
+
+        private Context context;
+
+        private Value data;
+
+        private int index;
+
+        public Arguments(@NonNull Value[] values) {
+            this(Evaluator.compile(values));
+        }
+
+        public Arguments(@NonNull Evaluator[] evaluators) {
+            this.evaluators = evaluators;
+            this.evaluated = new Value[evaluators.length];
+        }
+
+        /**
+         * Binds the arguments to the data they are evaluated against, discarding the
+         * results of a previous call.
+         */
+        @NonNull
+        public Arguments bind(Context context, Value data, int index) {
+            this.context = context;
+            this.data = data;
+            this.index = index;
+            Arrays.fill(evaluated, null);
+            return this;
+        }
+
+        /**
+         * Releases the references to the data and the evaluated arguments.
+         */
+        public void clear() {
+            bind(null, null, 0);
+        }
+
+        public int size() {
+            return evaluators.length;
+        }
+
+        /**
+         * @return the evaluated argument at {@code position}.
+         * @throws ArrayIndexOutOfBoundsException if there is no such argument.
+         */
+        @NonNull
+        public Value get(int position) {
+            Value value = evaluated[position];
+            if (null == value) {
+                value = evaluators[position].evaluate(context, data, index);
+                evaluated[position] = value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * <p>
+     * Arithmetic is a {@link Function} which folds its arguments as doubles from left to right.
+     * {@link com.flipkart.android.proteus.value.Binding.FunctionBinding} uses {@link #apply(double, double)}
+     * directly, so nested arithmetic such as {@code @{fn:add(@{fn:mul(@{a},2)},1)} boxes only
+     * the final result.
+     * </p>
+     */
+    public abstract static class Arithmetic extends Function {
+
+        /**
+         * @return the result when there are no arguments.
+         * @throws IllegalArgumentException if the function needs at least one argument.
+         */
+        public double identity() {
+            throw new IllegalArgumentException(getName() + " needs at least one argument");
+        }
+
+        public abstract double apply(double x, double y);
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
+
+        @NonNull
+        @Override
+        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
+            if (arguments.length < 1) {
+                return Primitive.valueOf(identity());
+            }
+
+            double result = arguments[0].getAsDouble();
+
+            for (int i = 1; i < arguments.length; i++) {
+                result = apply(result, arguments[i].getAsDouble());
+            }
+
+            return Primitive.valueOf(result);
+        }
+    }
+
+    /**
+     * <p>
+     * Comparison is a {@link Function} which compares its first two arguments as doubles. It
+     * is {@code false} if there are fewer than two arguments or either is not a {@link Primitive}.
+     * </p>
+     */
+    public abstract static class Comparison extends Function {
+
+        public abstract boolean compare(double x, double y);
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
+
+        public boolean test(Value x, Value y) {
+            return x.isPrimitive() && y.isPrimitive() && compare(x.getAsDouble(), y.getAsDouble());
+        }
+
+        @NonNull
+        @Override
+        public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
+            if (arguments.length < 2) {
+                return ProteusConstants.FALSE;
+            }
+            return test(arguments[0], arguments[1]) ? ProteusConstants.TRUE : ProteusConstants.FALSE;
+        }
+    }
 }
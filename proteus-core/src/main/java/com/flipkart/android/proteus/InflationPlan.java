@@ -0,0 +1,151 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+
+import com.flipkart.android.proteus.processor.AttributeProcessor;
+import com.flipkart.android.proteus.value.Layout;
+import com.flipkart.android.proteus.value.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * InflationPlan is the compiled form of a {@link Layout} for a set of parsers, made once per
+ * layout by {@link Layout#getPlan(ProteusContext)}. It holds the parser of the layout type, the
+ * attribute processor of each attribute in the order of the layout, and the bound attributes
+ * with the data paths they read, so that inflating the layout again and creating its
+ * {@link com.flipkart.android.proteus.managers.ViewManager} is a walk over arrays.
+ * </p>
+ * <p>
+ * An attribute is dispatched through {@link ViewTypeParser#handleAttribute(View, int, Value)}
+ * instead of its processor when no parser has a processor for it, or when a parser which
+ * would handle it overrides {@code handleAttribute}. Children are not part of the plan, each
+ * child layout has a plan of its own.
+ * </p>
+ */
+public class InflationPlan {
+
+    private static final AttributeProcessor[] NO_PROCESSORS = new AttributeProcessor[0];
+    private static final Value[] NO_VALUES = new Value[0];
+    private static final int[] NO_IDS = new int[0];
+
+    /**
+     * The parser of the layout type, null if none is registered.
+     */
+    @Nullable
+    public final ViewTypeParser parser;
+
+    /**
+     * The attributes whose value is a binding, null if there are none.
+     */
+    @Nullable
+    public final List<BoundAttribute> boundAttributes;
+
+    /**
+     * Maps the data paths read by the {@link #boundAttributes} to them, null if they read none.
+     */
+    @Nullable
+    public final DependencyIndex<BoundAttribute> dependencies;
+
+    @NonNull
+    final Map<String, ViewTypeParser> parsers;
+
+    @NonNull
+    final int[] ids;
+
+    @NonNull
+    final Value[] values;
+
+    @NonNull
+    final AttributeProcessor[] processors;
+
+    private InflationPlan(@NonNull Layout layout, @NonNull Map<String, ViewTypeParser> parsers) {
+        this.parsers = parsers;
+        this.parser = parsers.get(layout.type);
+
+        int size = null != layout.attributes ? layout.attributes.size() : 0;
+        this.ids = size > 0 ? new int[size] : NO_IDS;
+        this.values = size > 0 ? new Value[size] : NO_VALUES;
+        this.processors = size > 0 ? new AttributeProcessor[size] : NO_PROCESSORS;
+
+        List<BoundAttribute> boundAttributes = null;
+        for (int i = 0; i < size; i++) {
+            //noinspection ConstantConditions
+            Layout.Attribute attribute = layout.attributes.get(i);
+            ids[i] = attribute.id;
+            values[i] = attribute.value;
+            processors[i] = null != parser ? resolve(parser, attribute.id) : null;
+            if (attribute.value.isBinding()) {
+                if (null == boundAttributes) {
+                    boundAttributes = new ArrayList<>();
+                }
+                boundAttributes.add(new BoundAttribute(attribute.id, attribute.value.getAsBinding()));
+            }
+        }
+        this.boundAttributes = null != boundAttributes ? Collections.unmodifiableList(boundAttributes) : null;
+
+        if (null != boundAttributes) {
+            DependencyIndex<BoundAttribute> dependencies = new DependencyIndex<>();
+            for (BoundAttribute boundAttribute : boundAttributes) {
+                dependencies.add(boundAttribute.binding, boundAttribute);
+            }
+            this.dependencies = dependencies.isEmpty() ? null : dependencies;
+        } else {
+            this.dependencies = null;
+        }
+    }
+
+    @NonNull
+    public static InflationPlan compile(@NonNull Layout layout, @NonNull Map<String, ViewTypeParser> parsers) {
+        return new InflationPlan(layout, parsers);
+    }
+
+    /**
+     * Finds the processor {@link ViewTypeParser#handleAttribute(View, int, Value)} would
+     * dispatch the attribute to.
+     *
+     * @return the processor, null if the attribute must be dispatched through the parser.
+     */
+    @Nullable
+    private static AttributeProcessor resolve(@NonNull ViewTypeParser parser, int attributeId) {
+        return parser.overridesHandleAttribute() ? null : parser.getAttributeProcessor(attributeId);
+    }
+
+    /**
+     * @return {@code true} if this plan was compiled for the parsers.
+     */
+    public boolean isCompiledFor(@NonNull Map<String, ViewTypeParser> parsers) {
+        return this.parsers == parsers;
+    }
+
+    /**
+     * @return the number of attributes of the layout.
+     */
+    public int size() {
+        return ids.length;
+    }
+}
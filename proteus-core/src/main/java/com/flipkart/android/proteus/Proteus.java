@@ -24,11 +24,22 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.Size;
 
-import java.util.HashMap;
+import com.flipkart.android.proteus.processor.AttributeProcessor;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * Proteus
+ * <p>
+ * The parser of a type is prepared when the type is first used, so that building Proteus does
+ * not create the attribute processors of every registered type. Use {@link #prepare()} or
+ * {@link #prefetch(Executor)} to prepare them ahead of time.
+ * </p>
  *
  * @author aditya.sharat
  */
@@ -47,7 +58,7 @@ public final class Proteus {
     Proteus(@NonNull Map<String, Type> types, @NonNull final Map<String, Function> functions) {
         this.types = types;
         this.functions = new FunctionManager(functions);
-        this.parsers = map(types);
+        this.parsers = new Parsers(types);
     }
 
     public boolean has(@NonNull @Size(min = 1) String type) {
@@ -59,12 +70,41 @@ public final class Proteus {
         return types.get(type).getAttributeId(name);
     }
 
-    private Map<String, ViewTypeParser> map(Map<String, Type> types) {
-        Map<String, ViewTypeParser> parsers = new HashMap<>(types.size());
-        for (Map.Entry<String, Type> entry : types.entrySet()) {
-            parsers.put(entry.getKey(), entry.getValue().parser);
+    /**
+     * Prepares the parser of the type and its parents, if not already prepared.
+     *
+     * @return {@code false} if the type is not registered.
+     */
+    public boolean prepare(@NonNull @Size(min = 1) String type) {
+        Type t = types.get(type);
+        if (null == t) {
+            return false;
         }
-        return parsers;
+        t.prepare();
+        return true;
+    }
+
+    /**
+     * Prepares the parsers of all the registered types.
+     */
+    public void prepare() {
+        for (Type type : types.values()) {
+            type.prepare();
+        }
+    }
+
+    /**
+     * Prepares the parsers of all the registered types on the executor, typically a background
+     * thread started along with the app. A type used before it is prepared there is prepared
+     * by the thread which uses it.
+     */
+    public void prefetch(@NonNull Executor executor) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                prepare();
+            }
+        });
     }
 
     @NonNull
@@ -77,24 +117,147 @@ public final class Proteus {
         return new ProteusContext.Builder(base, parsers, functions);
     }
 
+    /**
+     * A registered type. Its parser is prepared by the first call to {@link #getParser()} or
+     * {@link #getAttributeId(String)}, after the parser of its parent type. The attribute ids
+     * only depend on the processors of the type and its parents, so they are the same whenever
+     * and in whichever order the types are prepared.
+     */
     public static class Type {
 
         public final int id;
         public final String type;
+
+        /**
+         * The parser of the type, which may not be prepared yet, see {@link #getParser()}.
+         */
         public final ViewTypeParser parser;
 
-        private final ViewTypeParser.AttributeSet attributes;
+        @Nullable
+        private final Type parent;
+
+        @Nullable
+        private final Map<String, AttributeProcessor> extras;
+
+        @Nullable
+        private volatile ViewTypeParser.AttributeSet attributes;
 
-        Type(int id, @NonNull String type, @NonNull ViewTypeParser parser, @NonNull ViewTypeParser.AttributeSet attributes) {
+        Type(int id, @NonNull String type, @NonNull ViewTypeParser parser, @Nullable Type parent, @Nullable Map<String, AttributeProcessor> extras) {
             this.id = id;
             this.type = type;
             this.parser = parser;
-            this.attributes = attributes;
+            this.parent = parent;
+            this.extras = extras;
+        }
+
+        @NonNull
+        ViewTypeParser.AttributeSet prepare() {
+            ViewTypeParser.AttributeSet attributes = this.attributes;
+            if (null == attributes) {
+                if (null != parent) {
+                    parent.prepare();
+                }
+                synchronized (this) {
+                    attributes = this.attributes;
+                    if (null == attributes) {
+                        //noinspection unchecked
+                        attributes = parser.prepare(null != parent ? parent.parser : null, extras);
+                        this.attributes = attributes;
+                    }
+                }
+            }
+            return attributes;
+        }
+
+        /**
+         * @return {@code true} if the parser of this type has been prepared.
+         */
+        public boolean isPrepared() {
+            return null != attributes;
+        }
+
+        /**
+         * @return the parser of the type, prepared.
+         */
+        @NonNull
+        public ViewTypeParser getParser() {
+            prepare();
+            return parser;
         }
 
         @Nullable
         public ViewTypeParser.AttributeSet.Attribute getAttributeId(String name) {
-            return attributes.getAttribute(name);
+            return prepare().getAttribute(name);
+        }
+    }
+
+    /**
+     * The parsers of the types, handed to the {@link ProteusContext}. Looking up a parser
+     * prepares it; iterating over the parsers prepares all of them.
+     */
+    private static class Parsers extends AbstractMap<String, ViewTypeParser> {
+
+        @NonNull
+        private final Map<String, Type> types;
+
+        @Nullable
+        private Set<Entry<String, ViewTypeParser>> entries;
+
+        Parsers(@NonNull Map<String, Type> types) {
+            this.types = types;
+        }
+
+        @Override
+        public ViewTypeParser get(Object key) {
+            Type type = types.get(key);
+            return null != type ? type.getParser() : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return types.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return types.size();
+        }
+
+        @NonNull
+        @Override
+        public Set<Entry<String, ViewTypeParser>> entrySet() {
+            if (null == entries) {
+                entries = new AbstractSet<Entry<String, ViewTypeParser>>() {
+                    @NonNull
+                    @Override
+                    public Iterator<Entry<String, ViewTypeParser>> iterator() {
+                        final Iterator<Entry<String, Type>> iterator = types.entrySet().iterator();
+                        return new Iterator<Entry<String, ViewTypeParser>>() {
+                            @Override
+                            public boolean hasNext() {
+                                return iterator.hasNext();
+                            }
+
+                            @Override
+                            public Entry<String, ViewTypeParser> next() {
+                                Entry<String, Type> entry = iterator.next();
+                                return new SimpleImmutableEntry<>(entry.getKey(), entry.getValue().getParser());
+                            }
+
+                            @Override
+                            public void remove() {
+                                throw new UnsupportedOperationException();
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return types.size();
+                    }
+                };
+            }
+            return entries;
         }
     }
 }
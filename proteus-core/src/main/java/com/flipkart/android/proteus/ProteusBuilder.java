@@ -43,8 +43,10 @@ import com.flipkart.android.proteus.parser.custom.WebViewParser;
 import com.flipkart.android.proteus.processor.AttributeProcessor;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * ProteusBuilder
@@ -125,6 +127,12 @@ public class ProteusBuilder {
     private Map<String, ViewTypeParser> parsers = new LinkedHashMap<>();
     private HashMap<String, Function> functions = new HashMap<>();
 
+    /**
+     * The types created so far, only while {@link #build()} runs.
+     */
+    @Nullable
+    private Map<String, Proteus.Type> types;
+
     public ProteusBuilder() {
         DEFAULT_MODULE.registerWith(this);
     }
@@ -165,21 +173,53 @@ public class ProteusBuilder {
         return parsers.get(type);
     }
 
+    /**
+     * Builds Proteus without preparing the parsers, each one is prepared when its type is first
+     * used. The type of a parent is always created before the types of its children, whatever
+     * order the parsers were registered or re-registered in.
+     */
     public Proteus build() {
-        Map<String, Proteus.Type> types = new HashMap<>();
-        for (Map.Entry<String, ViewTypeParser> entry : parsers.entrySet()) {
-            types.put(entry.getKey(), prepare(entry.getValue()));
+        types = new HashMap<>();
+        try {
+            for (String name : parsers.keySet()) {
+                type(name, new HashSet<String>());
+            }
+            return new Proteus(types, functions);
+        } finally {
+            types = null;
         }
-        return new Proteus(types, functions);
     }
 
+    /**
+     * Called by {@link #build()} for each registered parser, after the type of its parent has
+     * been created.
+     */
     protected Proteus.Type prepare(ViewTypeParser parser) {
+        return prepare(parser, null != types ? types.get(parser.getParentType()) : null);
+    }
+
+    protected Proteus.Type prepare(ViewTypeParser parser, @Nullable Proteus.Type parent) {
         String name = parser.getType();
-        ViewTypeParser parent = parsers.get(parser.getParentType());
         Map<String, AttributeProcessor> extras = this.processors.get(name);
+        return new Proteus.Type(ID, name, parser, parent, extras);
+    }
 
-        //noinspection unchecked
-        return new Proteus.Type(ID, name, parser, parser.prepare(parent, extras));
+    private void type(@NonNull String name, @NonNull Set<String> path) {
+        if (types.containsKey(name)) {
+            return;
+        }
+        ViewTypeParser parser = parsers.get(name);
+        if (null == parser) {
+            throw new IllegalStateException(name + " is not a registered type parser");
+        }
+        if (!path.add(name)) {
+            throw new IllegalStateException(name + " is its own parent type");
+        }
+        String parentType = parser.getParentType();
+        if (null != parentType) {
+            type(parentType, path);
+        }
+        types.put(name, prepare(parser));
     }
 
     protected Map<String, AttributeProcessor> getExtraAttributeProcessors(String type) {
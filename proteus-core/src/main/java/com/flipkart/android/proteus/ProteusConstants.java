@@ -38,9 +38,9 @@ public class ProteusConstants {
 
     public static final String EMPTY = "";
 
-    public static final Primitive EMPTY_STRING = new Primitive(EMPTY);
-    public static final Primitive TRUE = new Primitive(true);
-    public static final Primitive FALSE = new Primitive(false);
+    public static final Primitive EMPTY_STRING = Primitive.valueOf(EMPTY);
+    public static final Primitive TRUE = Primitive.valueOf(true);
+    public static final Primitive FALSE = Primitive.valueOf(false);
 
     private static boolean isLoggingEnabled = false;
 
@@ -46,6 +46,14 @@ public class ProteusContext extends ContextWrapper {
     @Nullable
     private final ProteusLayoutInflater.ImageLoader loader;
 
+    @NonNull
+    private final ThreadLocal<BindingMemo> memo = new ThreadLocal<BindingMemo>() {
+        @Override
+        protected BindingMemo initialValue() {
+            return new BindingMemo();
+        }
+    };
+
     private ProteusLayoutInflater inflater;
 
     ProteusContext(Context base, @NonNull ProteusResources resources,
@@ -100,6 +108,16 @@ public class ProteusContext extends ContextWrapper {
         return resources.getParsers().get(type);
     }
 
+    /**
+     * @return the binding memo of the calling thread, so that layouts can be inflated on a
+     * worker thread, see {@link AsyncProteusLayoutInflater}, while views are updated on the
+     * main thread.
+     */
+    @NonNull
+    public BindingMemo getBindingMemo() {
+        return memo.get();
+    }
+
     @NonNull
     public ProteusResources getProteusResources() {
         return resources;
@@ -26,6 +26,8 @@ import android.view.View;
 import com.flipkart.android.proteus.value.Layout;
 import com.flipkart.android.proteus.value.ObjectValue;
 
+import java.util.Collection;
+
 /**
  * ProteusView
  * <p>
@@ -121,4 +123,26 @@ public interface ProteusView {
         void setExtras(@Nullable Object extras);
 
     }
+
+    /**
+     * An optional interface of a {@link Manager} which can update only the attributes bound
+     * to changed data paths. Managers which do not implement it are updated fully with
+     * {@link Manager#update(ObjectValue)}.
+     */
+    interface IncrementalManager {
+
+        /**
+         * Update the {@link View} after the given paths of its data were changed. Only the
+         * attributes which read one of the changed paths are re-evaluated, eg. after changing
+         * {@code cart.count} only the views bound to {@code cart.count} (or to {@code cart}) are
+         * updated. The data may have been changed in place, or be a new tree which differs from
+         * the one the view is bound to only at the paths, as returned by
+         * {@link com.flipkart.android.proteus.value.DataDiff}.
+         *
+         * @param data  The data the view is bound to
+         * @param paths The data paths which were changed, eg. {@code cart.items[0].price}
+         */
+        void update(@NonNull ObjectValue data, @NonNull Collection<String> paths);
+
+    }
 }
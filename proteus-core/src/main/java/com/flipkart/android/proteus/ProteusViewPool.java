@@ -0,0 +1,218 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus;
+
+import android.content.ComponentCallbacks2;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+import com.flipkart.android.proteus.exceptions.ProteusInflateException;
+import com.flipkart.android.proteus.toolbox.Utils;
+import com.flipkart.android.proteus.value.Layout;
+import com.flipkart.android.proteus.value.ObjectValue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * ProteusViewPool keeps detached {@link ProteusView} trees, so that inflating a layout again
+ * only binds a kept tree to the new data with {@link ProteusView.Manager#update(ObjectValue)}
+ * instead of creating all its views. Trees are kept per {@link Layout} instance and data
+ * index; layouts inflated by name are looked up through the {@link LayoutManager}, which must
+ * return the same instance for a name for its trees to be reused.
+ * </p>
+ * <p>
+ * Only the roots of trees inflated into containers which are not proteus views are pooled,
+ * since a view inflated into a proteus view shares the data context of its parent. When the
+ * pool is full the tree released first is dropped. Call {@link #onTrimMemory(int)} from
+ * {@link ComponentCallbacks2#onTrimMemory(int)} to drop trees when memory is low. This class
+ * must be used on the main thread.
+ * </p>
+ */
+public class ProteusViewPool {
+
+    private static final String TAG = "ProteusViewPool";
+
+    public static final int DEFAULT_CAPACITY = 4;
+
+    @NonNull
+    private final ProteusContext context;
+
+    @NonNull
+    private final List<ProteusView> views = new ArrayList<>();
+
+    private int capacity;
+
+    private long hits;
+    private long misses;
+
+    public ProteusViewPool(@NonNull ProteusContext context) {
+        this(context, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the maximum number of trees kept.
+     */
+    public ProteusViewPool(@NonNull ProteusContext context, int capacity) {
+        this.context = context;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns a kept tree of the layout bound to the data, or inflates a new one with the
+     * inflater of the context. The returned view is not attached to the parent.
+     */
+    @NonNull
+    public ProteusView inflate(@NonNull Layout layout, @NonNull ObjectValue data, @Nullable ViewGroup parent, int dataIndex) {
+        ProteusView view = parent instanceof ProteusView ? null : acquire(layout, dataIndex);
+        if (null == view) {
+            misses++;
+            return context.getInflater().inflate(layout, data, parent, dataIndex);
+        }
+        hits++;
+        view.getViewManager().update(data);
+        return view;
+    }
+
+    @NonNull
+    public ProteusView inflate(@NonNull Layout layout, @NonNull ObjectValue data) {
+        return inflate(layout, data, null, -1);
+    }
+
+    @NonNull
+    public ProteusView inflate(@NonNull String name, @NonNull ObjectValue data, @Nullable ViewGroup parent, int dataIndex) {
+        Layout layout = context.getLayout(name);
+        if (null == layout) {
+            throw new ProteusInflateException("layout : '" + name + "' not found");
+        }
+        return inflate(layout, data, parent, dataIndex);
+    }
+
+    @NonNull
+    public ProteusView inflate(@NonNull String name, @NonNull ObjectValue data) {
+        return inflate(name, data, null, -1);
+    }
+
+    /**
+     * Removes a kept tree of the layout from the pool, without binding it to new data.
+     *
+     * @return the tree released last for the layout and data index, null if there is none.
+     */
+    @Nullable
+    public ProteusView acquire(@NonNull Layout layout, int dataIndex) {
+        for (int i = views.size() - 1; i >= 0; i--) {
+            ProteusView.Manager manager = views.get(i).getViewManager();
+            if (manager.getLayout() == layout && manager.getDataContext().getIndex() == dataIndex) {
+                return views.remove(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Detaches the view from its parent and keeps it for the next inflation of its layout.
+     *
+     * @return {@code true} if the view was kept, {@code false} if it is not the root of a tree
+     * or the capacity of the pool is 0.
+     */
+    public boolean release(@NonNull ProteusView view) {
+        View root = view.getAsView();
+        ViewParent parent = root.getParent();
+        if (parent instanceof ProteusView || null == view.getViewManager() || capacity <= 0) {
+            return false;
+        }
+        if (parent instanceof ViewGroup) {
+            ((ViewGroup) parent).removeView(root);
+        }
+        return keep(view);
+    }
+
+    /**
+     * Keeps a detached view, dropping the tree released first if the pool is full.
+     */
+    boolean keep(@NonNull ProteusView view) {
+        if (capacity <= 0) {
+            return false;
+        }
+        if (!views.contains(view)) {
+            views.add(view);
+            trim(capacity);
+        }
+        return true;
+    }
+
+    /**
+     * Drops the trees released first until at most {@code size} are kept.
+     */
+    public void trim(int size) {
+        int excess = views.size() - Math.max(size, 0);
+        if (excess > 0) {
+            views.subList(0, excess).clear();
+        }
+    }
+
+    public void clear() {
+        views.clear();
+    }
+
+    /**
+     * Drops half of the kept trees when the app is running low on memory, and all of them
+     * when it is critically low or in the background.
+     *
+     * @param level the level passed to {@link ComponentCallbacks2#onTrimMemory(int)}.
+     */
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            clear();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+            trim(views.size() / 2);
+        }
+    }
+
+    public int size() {
+        return views.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+        trim(capacity);
+    }
+
+    public long getHitCount() {
+        return hits;
+    }
+
+    public long getMissCount() {
+        return misses;
+    }
+
+    @Override
+    public String toString() {
+        return Utils.LIB_NAME + ":" + TAG + "[size=" + views.size() + ",capacity=" + capacity + ",hits=" + hits + ",misses=" + misses + "]";
+    }
+}
@@ -25,12 +25,11 @@ import android.util.Log;
 import android.view.ViewGroup;
 
 import com.flipkart.android.proteus.exceptions.ProteusInflateException;
+import com.flipkart.android.proteus.processor.AttributeProcessor;
 import com.flipkart.android.proteus.value.Layout;
 import com.flipkart.android.proteus.value.ObjectValue;
 import com.flipkart.android.proteus.value.Value;
 
-import java.util.Iterator;
-
 /**
  * A layout builder which can parse json to construct an android view out of it. It uses the
  * registered parsers to convert the json string to a view and then assign attributes.
@@ -45,9 +44,12 @@ public class SimpleLayoutInflater implements ProteusLayoutInflater {
     @NonNull
     protected final IdGenerator idGenerator;
 
+    private final boolean overridesHandleAttribute;
+
     SimpleLayoutInflater(@NonNull ProteusContext context, @NonNull IdGenerator idGenerator) {
         this.context = context;
         this.idGenerator = idGenerator;
+        this.overridesHandleAttribute = overridesHandleAttribute(getClass());
     }
 
     @Override
@@ -59,11 +61,23 @@ public class SimpleLayoutInflater implements ProteusLayoutInflater {
     @NonNull
     @Override
     public ProteusView inflate(@NonNull Layout layout, @NonNull ObjectValue data, @Nullable ViewGroup parent, int dataIndex) {
+        BindingMemo memo = context.getBindingMemo();
+        memo.begin();
+        try {
+            return onInflate(layout, data, parent, dataIndex);
+        } finally {
+            memo.end();
+        }
+    }
+
+    @NonNull
+    private ProteusView onInflate(@NonNull Layout layout, @NonNull ObjectValue data, @Nullable ViewGroup parent, int dataIndex) {
 
         /*
-         * Get the the view type parser for this layout type
+         * Get the plan of this layout, with the view type parser for this layout type
          */
-        final ViewTypeParser parser = getParser(layout.type);
+        final InflationPlan plan = layout.getPlan(context);
+        final ViewTypeParser parser = plan.parser;
         if (parser == null) {
             /*
              * If parser is not registered ask the application land for the view
@@ -95,14 +109,15 @@ public class SimpleLayoutInflater implements ProteusLayoutInflater {
         }
 
         /*
-         * Handle each attribute and set it on the view.
+         * Handle each attribute and set it on the view, through the parser if
+         * this inflater overrides how attributes are handled by the parser.
          */
-        if (layout.attributes != null) {
-            Iterator<Layout.Attribute> iterator = layout.attributes.iterator();
-            Layout.Attribute attribute;
-            while (iterator.hasNext()) {
-                attribute = iterator.next();
-                handleAttribute(parser, view, attribute.id, attribute.value);
+        AttributeProcessor[] processors = plan.processors;
+        for (int i = 0; i < processors.length; i++) {
+            if (null != processors[i] && !overridesHandleAttribute) {
+                handleAttribute(processors[i], view, plan.ids[i], plan.values[i]);
+            } else {
+                handleAttribute(parser, view, plan.ids[i], plan.values[i]);
             }
         }
 
@@ -183,6 +198,14 @@ public class SimpleLayoutInflater implements ProteusLayoutInflater {
         throw new ProteusInflateException("Layout contains type: 'include' but inflater callback is null");
     }
 
+    protected void handleAttribute(@NonNull AttributeProcessor processor, @NonNull ProteusView view, int attribute, @NonNull Value value) {
+        if (ProteusConstants.isLoggingEnabled()) {
+            Log.d(TAG, "Handle '" + attribute + "' : " + value);
+        }
+        //noinspection unchecked
+        processor.process(view.getAsView(), value);
+    }
+
     protected boolean handleAttribute(@NonNull ViewTypeParser parser, @NonNull ProteusView view, int attribute, @NonNull Value value) {
         if (ProteusConstants.isLoggingEnabled()) {
             Log.d(TAG, "Handle '" + attribute + "' : " + value);
@@ -190,4 +213,20 @@ public class SimpleLayoutInflater implements ProteusLayoutInflater {
         //noinspection unchecked
         return parser.handleAttribute(view.getAsView(), attribute, value);
     }
+
+    /**
+     * @return {@code true} if the inflater overrides
+     * {@link #handleAttribute(ViewTypeParser, ProteusView, int, Value)}.
+     */
+    static boolean overridesHandleAttribute(@NonNull Class<? extends SimpleLayoutInflater> type) {
+        for (Class<?> current = type; current != SimpleLayoutInflater.class; current = current.getSuperclass()) {
+            try {
+                current.getDeclaredMethod("handleAttribute", ViewTypeParser.class, ProteusView.class, int.class, Value.class);
+                return true;
+            } catch (NoSuchMethodException ignored) {
+                // look further up
+            }
+        }
+        return false;
+    }
 }
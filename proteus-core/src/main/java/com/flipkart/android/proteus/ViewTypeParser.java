@@ -28,6 +28,7 @@ import android.view.ViewGroup;
 
 import com.flipkart.android.proteus.managers.ViewManager;
 import com.flipkart.android.proteus.processor.AttributeProcessor;
+import com.flipkart.android.proteus.toolbox.PerfectHashTable;
 import com.flipkart.android.proteus.value.Layout;
 import com.flipkart.android.proteus.value.ObjectValue;
 import com.flipkart.android.proteus.value.Value;
@@ -37,7 +38,10 @@ import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -52,6 +56,21 @@ public abstract class ViewTypeParser<V extends View> {
 
     private AttributeProcessor[] processors = new AttributeProcessor[0];
 
+    /**
+     * The number of processors added so far while preparing, the array grows by doubling and
+     * is trimmed to this count once the parser is prepared.
+     */
+    private int count;
+
+    /**
+     * The processors of this parser and all its parents, indexed by attribute id. An inherited
+     * attribute is left empty when a parent overrides {@link #handleAttribute(View, int, Value)},
+     * so that it is still dispatched through the override.
+     */
+    private AttributeProcessor[] dispatch = new AttributeProcessor[0];
+
+    private boolean overridesHandleAttribute;
+
     private Map<String, AttributeSet.Attribute> attributes = new HashMap<>();
 
     private int offset = 0;
@@ -116,23 +135,23 @@ public abstract class ViewTypeParser<V extends View> {
     protected DataContext createDataContext(Context context, @NonNull Layout layout, @NonNull ObjectValue data,
                                             @Nullable ViewGroup parent, int dataIndex) {
         DataContext dataContext, parentDataContext = null;
-        Map<String, Value> map = layout.data;
+        DataContext.Scope scope = layout.getScope();
 
         if (parent instanceof ProteusView) {
             parentDataContext = ((ProteusView) parent).getViewManager().getDataContext();
         }
 
-        if (map == null) {
+        if (scope == null) {
             if (parentDataContext == null) {
                 dataContext = DataContext.create(context, data, dataIndex);
             } else {
-                dataContext = parentDataContext.copy();
+                dataContext = parentDataContext;
             }
         } else {
             if (parentDataContext == null) {
-                dataContext = DataContext.create(context, data, dataIndex, map);
+                dataContext = DataContext.create(context, data, dataIndex, scope);
             } else {
-                dataContext = parentDataContext.createChild(context, map, dataIndex);
+                dataContext = parentDataContext.createChild(context, scope, dataIndex);
             }
         }
         return dataContext;
@@ -168,6 +187,12 @@ public abstract class ViewTypeParser<V extends View> {
      * @return
      */
     public boolean handleAttribute(V view, int attributeId, Value value) {
+        AttributeProcessor processor = getAttributeProcessor(attributeId);
+        if (null != processor) {
+            //noinspection unchecked
+            processor.process(view, value);
+            return true;
+        }
         int position = getPosition(attributeId);
         if (position < 0) {
             //noinspection unchecked
@@ -179,6 +204,25 @@ public abstract class ViewTypeParser<V extends View> {
         return true;
     }
 
+    /**
+     * @param attributeId
+     * @return the processor of the attribute if this parser or one of its parents has one for
+     * it, null otherwise. It is also null for an attribute of a parent which overrides
+     * {@link #handleAttribute(View, int, Value)}, in which case only
+     * {@link #handleAttribute(View, int, Value)} dispatches it correctly.
+     */
+    @Nullable
+    public AttributeProcessor getAttributeProcessor(int attributeId) {
+        return attributeId >= 0 && attributeId < dispatch.length ? dispatch[attributeId] : null;
+    }
+
+    /**
+     * @return {@code true} if this parser overrides {@link #handleAttribute(View, int, Value)}.
+     */
+    boolean overridesHandleAttribute() {
+        return overridesHandleAttribute;
+    }
+
     /**
      * @param view
      * @param children
@@ -206,7 +250,8 @@ public abstract class ViewTypeParser<V extends View> {
     @NonNull
     public AttributeSet prepare(@Nullable ViewTypeParser parent, @Nullable Map<String, AttributeProcessor<V>> extras) {
         this.parent = parent;
-        this.processors = new AttributeProcessor[0];
+        this.processors = new AttributeProcessor[16];
+        this.count = 0;
         this.attributes = new HashMap<>();
         this.offset = null != parent ? parent.getAttributeSet().getOffset() : 0;
 
@@ -215,11 +260,36 @@ public abstract class ViewTypeParser<V extends View> {
         if (extras != null) {
             addAttributeProcessors(extras);
         }
+        this.processors = Arrays.copyOf(processors, count);
 
         this.attributeSet = new AttributeSet(attributes.size() > 0 ? attributes : null, null != parent ? parent.getAttributeSet() : null, processors.length);
+        this.overridesHandleAttribute = overridesHandleAttribute(getClass());
+        this.dispatch = flatten(parent, processors);
         return attributeSet;
     }
 
+    private static AttributeProcessor[] flatten(@Nullable ViewTypeParser parent, AttributeProcessor[] processors) {
+        if (null == parent) {
+            return processors;
+        }
+        AttributeProcessor[] inherited = parent.dispatch;
+        AttributeProcessor[] dispatch = new AttributeProcessor[inherited.length + processors.length];
+        if (!parent.overridesHandleAttribute) {
+            System.arraycopy(inherited, 0, dispatch, 0, inherited.length);
+        }
+        System.arraycopy(processors, 0, dispatch, inherited.length, processors.length);
+        return dispatch;
+    }
+
+    private static boolean overridesHandleAttribute(Class<?> type) {
+        try {
+            return type.getMethod("handleAttribute", View.class, int.class, Value.class)
+                    .getDeclaringClass() != ViewTypeParser.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
     /**
      * @param name
      * @return
@@ -249,12 +319,14 @@ public abstract class ViewTypeParser<V extends View> {
      */
     protected void addAttributeProcessor(String name, AttributeProcessor<V> processor) {
         addAttributeProcessor(processor);
-        attributes.put(name, new AttributeSet.Attribute(getAttributeId(processors.length - 1), processor));
+        attributes.put(name, new AttributeSet.Attribute(getAttributeId(count - 1), processor));
     }
 
     private void addAttributeProcessor(AttributeProcessor<V> handler) {
-        processors = Arrays.copyOf(processors, processors.length + 1);
-        processors[processors.length - 1] = handler;
+        if (count == processors.length) {
+            processors = Arrays.copyOf(processors, Math.max(16, count * 2));
+        }
+        processors[count++] = handler;
     }
 
     private int getOffset() {
@@ -312,23 +384,38 @@ public abstract class ViewTypeParser<V extends View> {
 
         private final int offset;
 
+        /**
+         * The attributes of this set and all its parents, where an attribute shadows the
+         * attributes of the same name in the parents.
+         */
+        @NonNull
+        private final PerfectHashTable<Attribute> table;
+
         AttributeSet(@Nullable Map<String, Attribute> attributes, @Nullable AttributeSet parent, int offset) {
             this.attributes = attributes;
             this.parent = parent;
             int parentOffset = null != parent ? parent.getOffset() : 0;
             this.offset = parentOffset - offset;
+            this.table = new PerfectHashTable<>(flatten());
+        }
+
+        private Map<String, Attribute> flatten() {
+            List<AttributeSet> ancestry = new ArrayList<>();
+            for (AttributeSet set = this; null != set; set = set.parent) {
+                ancestry.add(set);
+            }
+            Map<String, Attribute> flattened = new LinkedHashMap<>();
+            for (int i = ancestry.size() - 1; i >= 0; i--) {
+                if (null != ancestry.get(i).attributes) {
+                    flattened.putAll(ancestry.get(i).attributes);
+                }
+            }
+            return flattened;
         }
 
         @Nullable
         public Attribute getAttribute(String name) {
-            Attribute attribute = null != attributes ? attributes.get(name) : null;
-            if (null != attribute) {
-                return attribute;
-            } else if (null != parent) {
-                return parent.getAttribute(name);
-            } else {
-                return null;
-            }
+            return table.get(name);
         }
 
         int getOffset() {
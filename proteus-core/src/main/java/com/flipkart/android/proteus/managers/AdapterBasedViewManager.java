@@ -21,9 +21,11 @@ package com.flipkart.android.proteus.managers;
 
 import android.support.annotation.NonNull;
 import android.view.View;
+import android.view.ViewGroup;
 
 import com.flipkart.android.proteus.DataContext;
 import com.flipkart.android.proteus.ProteusContext;
+import com.flipkart.android.proteus.ProteusView;
 import com.flipkart.android.proteus.ViewTypeParser;
 import com.flipkart.android.proteus.value.Layout;
 
@@ -47,4 +49,26 @@ public class AdapterBasedViewManager extends ViewGroupManager {
     protected void updateChildren() {
 
     }
+
+    /**
+     * The adapter is not notified of a change below an element of its collection, which does
+     * not re-evaluate the collection itself, so the children it has bound are updated fully.
+     * They are bound by the adapter to data of its choosing, so they are re-evaluated against
+     * their own data rather than against the data of this view.
+     */
+    @Override
+    protected void updateChildren(@NonNull String[][] paths) {
+        if (view instanceof ViewGroup) {
+            ViewGroup parent = (ViewGroup) view;
+            int count = parent.getChildCount();
+            View child;
+
+            for (int index = 0; index < count; index++) {
+                child = parent.getChildAt(index);
+                if (child instanceof ProteusView) {
+                    ((ProteusView) child).getViewManager().update(null);
+                }
+            }
+        }
+    }
 }
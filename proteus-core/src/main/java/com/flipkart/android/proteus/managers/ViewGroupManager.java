@@ -24,6 +24,7 @@ import android.support.annotation.Nullable;
 import android.view.View;
 import android.view.ViewGroup;
 
+import com.flipkart.android.proteus.BindingMemo;
 import com.flipkart.android.proteus.DataContext;
 import com.flipkart.android.proteus.ProteusContext;
 import com.flipkart.android.proteus.ProteusView;
@@ -49,8 +50,23 @@ public class ViewGroupManager extends ViewManager {
 
     @Override
     public void update(@Nullable ObjectValue data) {
-        super.update(data);
-        updateChildren();
+        BindingMemo memo = context.getBindingMemo();
+        memo.begin();
+        try {
+            super.update(data);
+            updateChildren();
+        } finally {
+            memo.end();
+        }
+    }
+
+    @Override
+    protected boolean update(@NonNull ObjectValue data, @NonNull String[][] paths) {
+        if (super.update(data, paths)) {
+            updateChildren(paths);
+            return true;
+        }
+        return false;
     }
 
     protected void updateChildren() {
@@ -67,4 +83,30 @@ public class ViewGroupManager extends ViewManager {
             }
         }
     }
+
+    /**
+     * Propagates changed paths to the children. Unlike {@link #updateChildren()} data bound
+     * children are visited as well, since a change below an element of the collection does not
+     * re-evaluate the collection itself.
+     */
+    protected void updateChildren(@NonNull String[][] paths) {
+        if (view instanceof ViewGroup) {
+            ViewGroup parent = (ViewGroup) view;
+            int count = parent.getChildCount();
+            View child;
+            ProteusView.Manager manager;
+
+            for (int index = 0; index < count; index++) {
+                child = parent.getChildAt(index);
+                if (child instanceof ProteusView) {
+                    manager = ((ProteusView) child).getViewManager();
+                    if (manager instanceof ViewManager) {
+                        ((ViewManager) manager).update(dataContext.getData(), paths);
+                    } else {
+                        manager.update(dataContext.getData());
+                    }
+                }
+            }
+        }
+    }
 }
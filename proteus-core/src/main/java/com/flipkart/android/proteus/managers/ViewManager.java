@@ -23,23 +23,32 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.view.View;
 
+import com.flipkart.android.proteus.BindingMemo;
 import com.flipkart.android.proteus.BoundAttribute;
 import com.flipkart.android.proteus.DataContext;
+import com.flipkart.android.proteus.DependencyIndex;
+import com.flipkart.android.proteus.InflationPlan;
 import com.flipkart.android.proteus.ProteusContext;
 import com.flipkart.android.proteus.ProteusView;
 import com.flipkart.android.proteus.ViewTypeParser;
 import com.flipkart.android.proteus.value.Layout;
 import com.flipkart.android.proteus.value.ObjectValue;
+import com.flipkart.android.proteus.value.Value;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * ViewManager
  *
  * @author aditya.sharat
  */
-public class ViewManager implements ProteusView.Manager {
+public class ViewManager implements ProteusView.Manager, ProteusView.IncrementalManager {
 
     @NonNull
     protected final ProteusContext context;
@@ -50,8 +59,18 @@ public class ViewManager implements ProteusView.Manager {
     @NonNull
     protected final Layout layout;
 
+    /**
+     * The data context of this view, shared with the parent view until the view is bound
+     * to data of its own, see {@link #ownsDataContext}.
+     */
     @NonNull
-    protected final DataContext dataContext;
+    protected DataContext dataContext;
+
+    /**
+     * {@code false} while this view shares the data context of an ancestor, which is then
+     * written by the ancestor and copied before this view writes it.
+     */
+    protected boolean ownsDataContext;
 
     @NonNull
     protected final ViewTypeParser parser;
@@ -59,6 +78,18 @@ public class ViewManager implements ProteusView.Manager {
     @Nullable
     protected final List<BoundAttribute> boundAttributes;
 
+    /**
+     * Maps the data paths read by the bound attributes to the attributes.
+     */
+    @Nullable
+    protected final DependencyIndex<BoundAttribute> dependencies;
+
+    /**
+     * Maps the data paths read by the scope of the data context to the scope keys.
+     */
+    @Nullable
+    protected final DependencyIndex<String> scopeDependencies;
+
     @Nullable
     protected Object extras;
 
@@ -69,37 +100,90 @@ public class ViewManager implements ProteusView.Manager {
         this.view = view;
         this.layout = layout;
         this.dataContext = dataContext;
-
-        if (null != layout.attributes) {
-            List<BoundAttribute> boundAttributes = new ArrayList<>();
-            for (Layout.Attribute attribute : layout.attributes) {
-                if (attribute.value.isBinding()) {
-                    boundAttributes.add(new BoundAttribute(attribute.id, attribute.value.getAsBinding()));
-                }
-            }
-            if (boundAttributes.size() > 0) {
-                this.boundAttributes = boundAttributes;
-            } else {
-                this.boundAttributes = null;
+        this.ownsDataContext = dataContext.claim();
+
+        // the dependencies of the bound attributes are shared by all the views of the layout,
+        // the list is copied since subclasses may change it
+        InflationPlan plan = layout.getPlan(context);
+        this.boundAttributes = null != plan.boundAttributes ? new ArrayList<>(plan.boundAttributes) : null;
+        this.dependencies = plan.dependencies;
+
+        Map<String, Value> scope = dataContext.getScope();
+        if (hasOwnScope() && null != scope) {
+            DependencyIndex<String> scopeDependencies = new DependencyIndex<>();
+            for (Map.Entry<String, Value> entry : scope.entrySet()) {
+                scopeDependencies.add(entry.getValue(), entry.getKey());
             }
+            this.scopeDependencies = scopeDependencies.isEmpty() ? null : scopeDependencies;
         } else {
-            this.boundAttributes = null;
+            this.scopeDependencies = null;
         }
     }
 
     @Override
     public void update(@Nullable ObjectValue data) {
-        // update the data context so all child views can refer to new data
-        if (data != null) {
-            updateDataContext(data);
+        BindingMemo memo = context.getBindingMemo();
+        memo.begin();
+        try {
+            // update the data context so all child views can refer to new data
+            if (data != null) {
+                updateDataContext(data);
+            }
+
+            // update the bound attributes of this view
+            if (this.boundAttributes != null) {
+                for (BoundAttribute boundAttribute : this.boundAttributes) {
+                    this.handleBinding(boundAttribute);
+                }
+            }
+        } finally {
+            memo.end();
+        }
+    }
+
+    @Override
+    public void update(@NonNull ObjectValue data, @NonNull Collection<String> paths) {
+        BindingMemo memo = context.getBindingMemo();
+        memo.begin();
+        try {
+            update(data, DependencyIndex.segments(paths));
+        } finally {
+            memo.end();
         }
+    }
 
-        // update the bound attributes of this view
-        if (this.boundAttributes != null) {
-            for (BoundAttribute boundAttribute : this.boundAttributes) {
-                this.handleBinding(boundAttribute);
+    /**
+     * Re-evaluates the bound attributes affected by the changed paths. A view with its own
+     * scope is fully updated if the scope reads a changed path, and left untouched otherwise
+     * since nothing below it can see the rest of the data. A view without one is bound to
+     * {@code data}, which may be a new tree differing from the current one at the paths.
+     *
+     * @param data  The data the view is bound to
+     * @param paths The changed paths, split into segments by {@link DependencyIndex#segments(String)}
+     * @return {@code true} if the changes should be propagated to the children of this view.
+     */
+    protected boolean update(@NonNull ObjectValue data, @NonNull String[][] paths) {
+        if (hasOwnScope()) {
+            if (null != scopeDependencies && scopeDependencies.isAffected(paths)) {
+                update(data);
             }
+            return false;
         }
+
+        updateDataContext(data);
+
+        if (null != this.dependencies && null != this.boundAttributes) {
+            Set<BoundAttribute> affected = Collections.newSetFromMap(new IdentityHashMap<BoundAttribute, Boolean>());
+            this.dependencies.collect(paths, affected);
+            if (!affected.isEmpty()) {
+                for (BoundAttribute boundAttribute : this.boundAttributes) {
+                    if (affected.contains(boundAttribute)) {
+                        this.handleBinding(boundAttribute);
+                    }
+                }
+            }
+        }
+        return true;
     }
 
     @Nullable
@@ -137,13 +221,21 @@ public class ViewManager implements ProteusView.Manager {
     }
 
     private void updateDataContext(ObjectValue data) {
-        if (dataContext.hasOwnProperties()) {
+        if (hasOwnScope()) {
             dataContext.update(context, data);
-        } else {
+        } else if (data != dataContext.getData()) {
+            if (!ownsDataContext) {
+                dataContext = dataContext.copy();
+                ownsDataContext = dataContext.claim();
+            }
             dataContext.setData(data);
         }
     }
 
+    private boolean hasOwnScope() {
+        return ownsDataContext && dataContext.hasOwnProperties();
+    }
+
     private void handleBinding(BoundAttribute boundAttribute) {
         //noinspection unchecked
         parser.handleAttribute(view, boundAttribute.attributeId, boundAttribute.binding);
@@ -23,8 +23,10 @@ import android.content.Context;
 import android.support.annotation.Nullable;
 import android.view.View;
 
+import com.flipkart.android.proteus.BindingMemo;
 import com.flipkart.android.proteus.DataContext;
 import com.flipkart.android.proteus.FunctionManager;
+import com.flipkart.android.proteus.ProteusContext;
 import com.flipkart.android.proteus.ProteusView;
 import com.flipkart.android.proteus.value.AttributeResource;
 import com.flipkart.android.proteus.value.Binding;
@@ -41,48 +43,28 @@ import com.flipkart.android.proteus.value.Value;
  */
 public abstract class AttributeProcessor<V extends View> {
 
+    /**
+     * Evaluates the value the same way {@link #process(View, Value)} dispatches it, but without
+     * creating a processor to capture the result.
+     */
     public static Value evaluate(final Context context, final Value input, final Value data, final int index) {
-        final Value[] output = new Value[1];
-
-        AttributeProcessor processor = new AttributeProcessor<View>() {
-
-            @Override
-            public void handleBinding(View view, Binding binding) {
-                output[0] = binding.evaluate(context, data, index);
-            }
-
-            @Override
-            public void handleValue(View view, Value value) {
-                output[0] = value;
-            }
-
-            @Override
-            public void handleResource(View view, Resource resource) {
-                output[0] = new Primitive(resource.getString(context));
-            }
-
-            @Override
-            public void handleAttributeResource(View view, AttributeResource attribute) {
-                output[0] = new Primitive(attribute.apply(context).getString(0));
-            }
-
-            @Override
-            public void handleStyleResource(View view, StyleResource style) {
-                output[0] = new Primitive(style.apply(context).getString(0));
-            }
-        };
-
-        //noinspection unchecked
-        processor.process(null, input);
-
-        return output[0];
+        if (input.isBinding()) {
+            return input.getAsBinding().evaluate(context, data, index);
+        } else if (input.isResource()) {
+            return new Primitive(input.getAsResource().getString(context));
+        } else if (input.isAttributeResource()) {
+            return new Primitive(input.getAsAttributeResource().apply(context).getString(0));
+        } else if (input.isStyleResource()) {
+            return new Primitive(input.getAsStyleResource().apply(context).getString(0));
+        }
+        return input;
     }
 
     @Nullable
     public static Value staticPreCompile(Primitive value, Context context, FunctionManager manager) {
         String string = value.getAsString();
         if (Binding.isBindingValue(string)) {
-            return Binding.valueOf(string, context, manager);
+            return Binding.compile(string, context, manager);
         } else if (Resource.isResource(string)) {
             return Resource.valueOf(string, null, context);
         } else if (AttributeResource.isAttributeResource(string)) {
@@ -145,6 +127,10 @@ public abstract class AttributeProcessor<V extends View> {
 
     public Value precompile(Value value, Context context, FunctionManager manager) {
         Value compiled = staticPreCompile(value, context, manager);
+        if (null != compiled && compiled.isPrimitive()) {
+            // a function binding folded into a constant
+            return compile(compiled, context);
+        }
         return null != compiled ? compiled : compile(value, context);
     }
 
@@ -153,6 +139,15 @@ public abstract class AttributeProcessor<V extends View> {
     }
 
     protected Value evaluate(Binding binding, Context context, Value data, int index) {
-        return binding.evaluate(context, data, index);
+        if (!(context instanceof ProteusContext)) {
+            return binding.evaluate(context, data, index);
+        }
+        BindingMemo memo = ((ProteusContext) context).getBindingMemo();
+        Value value = memo.get(binding, data, index);
+        if (null == value) {
+            value = binding.evaluate(context, data, index);
+            memo.put(binding, data, index, value);
+        }
+        return value;
     }
 }
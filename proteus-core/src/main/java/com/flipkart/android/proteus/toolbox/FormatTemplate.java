@@ -0,0 +1,159 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.toolbox;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.flipkart.android.proteus.value.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.MissingFormatArgumentException;
+
+/**
+ * <p>
+ * FormatTemplate is a {@link String#format(String, Object...)} template parsed once into a list
+ * of literal text and argument references, which is then applied by appending into a reused
+ * {@link StringBuilder}. Only the specifiers which apply to string arguments without any flags,
+ * width or precision are supported: {@code %s}, {@code %1$s}, {@code %%} and {@code %n}. Templates
+ * with other specifiers are not compiled and should be formatted with {@link String#format}.
+ * </p>
+ */
+public class FormatTemplate {
+
+    private static final int MAX_RETAINED_CAPACITY = 1024;
+
+    private static final ThreadLocal<StringBuilder> BUILDER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(64);
+        }
+    };
+
+    /**
+     * The literal text, or {@code null} where an argument is referenced.
+     */
+    @NonNull
+    private final String[] literals;
+
+    /**
+     * The 0 based index of the argument referenced by each segment, or -1 for literal text.
+     */
+    @NonNull
+    private final int[] indices;
+
+    private FormatTemplate(@NonNull String[] literals, @NonNull int[] indices) {
+        this.literals = literals;
+        this.indices = indices;
+    }
+
+    /**
+     * @return the compiled template, or {@code null} if it has unsupported specifiers.
+     */
+    @Nullable
+    public static FormatTemplate compile(@NonNull String template) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int length = template.length();
+        int ordinary = 0;
+        int i = 0;
+        char c;
+
+        while (i < length) {
+            c = template.charAt(i++);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            if (i >= length) {
+                return null;
+            }
+            c = template.charAt(i++);
+            if (c == '%') {
+                literal.append('%');
+            } else if (c == 'n') {
+                literal.append(System.getProperty("line.separator"));
+            } else if (c == 's') {
+                add(literals, indices, literal, ordinary++);
+            } else if (c >= '1' && c <= '9') {
+                int index = c - '0';
+                while (i < length && Character.isDigit(template.charAt(i))) {
+                    index = index * 10 + template.charAt(i++) - '0';
+                }
+                if (i + 1 >= length || template.charAt(i) != '$' || template.charAt(i + 1) != 's') {
+                    return null;
+                }
+                i += 2;
+                add(literals, indices, literal, index - 1);
+            } else {
+                return null;
+            }
+        }
+        if (literal.length() > 0) {
+            literals.add(literal.toString());
+            indices.add(-1);
+        }
+
+        int[] array = new int[indices.size()];
+        for (int j = 0; j < array.length; j++) {
+            array[j] = indices.get(j);
+        }
+        return new FormatTemplate(literals.toArray(new String[literals.size()]), array);
+    }
+
+    private static void add(List<String> literals, List<Integer> indices, StringBuilder literal, int index) {
+        if (literal.length() > 0) {
+            literals.add(literal.toString());
+            indices.add(-1);
+            literal.setLength(0);
+        }
+        literals.add(null);
+        indices.add(index);
+    }
+
+    /**
+     * Formats the arguments {@code arguments[offset..]} as strings into the template.
+     *
+     * @throws MissingFormatArgumentException if the template references a missing argument.
+     */
+    @NonNull
+    public String format(@NonNull Value[] arguments, int offset) {
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+        int index;
+        for (int i = 0; i < literals.length; i++) {
+            index = indices[i];
+            if (index < 0) {
+                builder.append(literals[i]);
+            } else if (offset + index < arguments.length) {
+                builder.append(arguments[offset + index].getAsString());
+            } else {
+                throw new MissingFormatArgumentException("%" + (index + 1) + "$s");
+            }
+        }
+        String formatted = builder.toString();
+        if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+            BUILDER.remove();
+        }
+        return formatted;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.toolbox;
+
+import android.support.annotation.NonNull;
+
+import java.text.Format;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+
+/**
+ * <p>
+ * FormatterCache caches {@link Format} instances by their pattern and locale. Formatters like
+ * {@link java.text.SimpleDateFormat} and {@link java.text.DecimalFormat} are expensive to create
+ * and are not thread safe, so each thread keeps its own instances. A thread only ever uses the
+ * formatters it created, which makes {@link #get(String)} safe to call from any thread.
+ * </p>
+ * <p>
+ * The locale is the default locale at the time of the call. When it changes, the formatters
+ * of the previous locale are discarded.
+ * </p>
+ */
+public abstract class FormatterCache<F extends Format> {
+
+    private static final int DEFAULT_MAX_SIZE = 16;
+
+    private final int maxSize;
+
+    private final ThreadLocal<Cache<F>> caches = new ThreadLocal<>();
+
+    public FormatterCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize the maximum number of patterns cached per thread.
+     */
+    public FormatterCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates a new formatter for the pattern and locale. Called at most once per thread for a
+     * pattern and locale, while the formatter stays in the cache.
+     */
+    @NonNull
+    protected abstract F create(@NonNull String pattern, @NonNull Locale locale);
+
+    /**
+     * @return the formatter of this thread for the pattern and the default locale. It must not
+     * be shared with other threads.
+     */
+    @NonNull
+    public F get(@NonNull String pattern) {
+        Locale locale = Locale.getDefault();
+        Cache<F> cache = caches.get();
+        if (null == cache || !cache.locale.equals(locale)) {
+            cache = new Cache<>(locale, maxSize);
+            caches.set(cache);
+        }
+        F formatter = cache.get(pattern);
+        if (null == formatter) {
+            formatter = create(pattern, locale);
+            cache.put(pattern, formatter);
+        }
+        return formatter;
+    }
+
+    /**
+     * The formatters of one thread in the order they were last used, the least recently used
+     * one first so that it is the one evicted.
+     */
+    private static class Cache<F> {
+
+        @NonNull
+        final Locale locale;
+
+        private final int maxSize;
+
+        private final LinkedHashMap<String, F> formatters;
+
+        Cache(@NonNull Locale locale, int maxSize) {
+            this.locale = locale;
+            this.maxSize = maxSize;
+            this.formatters = new LinkedHashMap<>(maxSize, 0.75f, true);
+        }
+
+        F get(@NonNull String pattern) {
+            return formatters.get(pattern);
+        }
+
+        void put(@NonNull String pattern, @NonNull F formatter) {
+            formatters.put(pattern, formatter);
+            if (formatters.size() > maxSize) {
+                Iterator<F> eldest = formatters.values().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+}
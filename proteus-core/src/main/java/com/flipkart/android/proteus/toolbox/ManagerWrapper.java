@@ -29,6 +29,8 @@ import com.flipkart.android.proteus.ProteusView;
 import com.flipkart.android.proteus.value.Layout;
 import com.flipkart.android.proteus.value.ObjectValue;
 
+import java.util.Collection;
+
 /**
  * ManagerWrapper
  * <p>
@@ -39,7 +41,7 @@ import com.flipkart.android.proteus.value.ObjectValue;
  *
  * @author adityasharat
  */
-public class ManagerWrapper implements ProteusView.Manager {
+public class ManagerWrapper implements ProteusView.Manager, ProteusView.IncrementalManager {
 
     private final ProteusView.Manager base;
 
@@ -52,6 +54,15 @@ public class ManagerWrapper implements ProteusView.Manager {
         base.update(data);
     }
 
+    @Override
+    public void update(@NonNull ObjectValue data, @NonNull Collection<String> paths) {
+        if (base instanceof ProteusView.IncrementalManager) {
+            ((ProteusView.IncrementalManager) base).update(data, paths);
+        } else {
+            base.update(data);
+        }
+    }
+
     @Nullable
     @Override
     public View findViewById(@NonNull String id) {
@@ -0,0 +1,223 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.toolbox;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * PerfectHashTable is an immutable map of strings built once from a known set of keys. Every key
+ * is placed in its own slot, so a lookup is a single probe and one string comparison, with no
+ * chains or collisions to walk.
+ * </p>
+ * <p>
+ * The keys are first hashed into small buckets. Each bucket then gets a seed, found while
+ * building the table, which moves all of its keys into free slots (hash and displace). A lookup
+ * reads the seed of its bucket and hashes the key with it. Keys with identical hash codes can
+ * never be separated; the table falls back to a {@link HashMap} for such key sets.
+ * </p>
+ */
+public class PerfectHashTable<V> {
+
+    private static final int KEYS_PER_BUCKET = 4;
+
+    private static final int MAX_SEED = 1 << 12;
+
+    private static final int MAX_SIZE = 1 << 20;
+
+    @NonNull
+    private final int[] seeds;
+
+    @NonNull
+    private final String[] keys;
+
+    @NonNull
+    private final List<V> values;
+
+    private final int mask;
+
+    @Nullable
+    private final Map<String, V> fallback;
+
+    private final int size;
+
+    public PerfectHashTable(@NonNull Map<String, V> map) {
+        this.size = map.size();
+        int buckets = 1;
+        while (buckets * KEYS_PER_BUCKET < size) {
+            buckets <<= 1;
+        }
+        int length = 2;
+        while (length < size * 2) {
+            length <<= 1;
+        }
+
+        List<List<Map.Entry<String, V>>> grouped = group(map, buckets);
+        int[] seeds = new int[buckets];
+        String[] keys = null;
+        List<V> values = null;
+        if (hasDistinctHashes(map)) {
+            while (length <= MAX_SIZE) {
+                keys = new String[length];
+                values = new ArrayList<>(Collections.<V>nCopies(length, null));
+                if (place(grouped, seeds, keys, values, length - 1)) {
+                    break;
+                }
+                length <<= 1;
+            }
+        } else {
+            // no seed can ever separate keys of the same hash
+            length = MAX_SIZE + 1;
+        }
+
+        if (length > MAX_SIZE) {
+            this.seeds = new int[1];
+            this.keys = new String[1];
+            this.values = Collections.singletonList(null);
+            this.mask = 0;
+            this.fallback = new HashMap<>(map);
+        } else {
+            this.seeds = seeds;
+            this.keys = keys;
+            this.values = values;
+            this.mask = length - 1;
+            this.fallback = null;
+        }
+    }
+
+    private static boolean hasDistinctHashes(Map<String, ?> map) {
+        Set<Integer> hashes = new HashSet<>();
+        for (String key : map.keySet()) {
+            if (!hashes.add(spread(key.hashCode()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <V> List<List<Map.Entry<String, V>>> group(Map<String, V> map, int buckets) {
+        List<List<Map.Entry<String, V>>> grouped = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            grouped.add(new ArrayList<Map.Entry<String, V>>(KEYS_PER_BUCKET));
+        }
+        for (Map.Entry<String, V> entry : map.entrySet()) {
+            grouped.get(spread(entry.getKey().hashCode()) & (buckets - 1)).add(entry);
+        }
+        return grouped;
+    }
+
+    /**
+     * Seeds the buckets, largest first, while there is the most room left for them.
+     */
+    private static <V> boolean place(final List<List<Map.Entry<String, V>>> grouped, int[] seeds,
+                                     String[] keys, List<V> values, int mask) {
+        Integer[] order = new Integer[grouped.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return grouped.get(b).size() - grouped.get(a).size();
+            }
+        });
+
+        int[] slots = new int[KEYS_PER_BUCKET];
+        for (int b : order) {
+            List<Map.Entry<String, V>> bucket = grouped.get(b);
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            if (slots.length < bucket.size()) {
+                slots = new int[bucket.size()];
+            }
+            int seed = 0;
+            while (!fits(bucket, seed, keys, mask, slots)) {
+                if (++seed == MAX_SEED) {
+                    return false;
+                }
+            }
+            seeds[b] = seed;
+            for (int i = 0; i < bucket.size(); i++) {
+                keys[slots[i]] = bucket.get(i).getKey();
+                values.set(slots[i], bucket.get(i).getValue());
+            }
+        }
+        return true;
+    }
+
+    private static <V> boolean fits(List<Map.Entry<String, V>> bucket, int seed, String[] keys, int mask, int[] slots) {
+        for (int i = 0; i < bucket.size(); i++) {
+            int slot = slot(spread(bucket.get(i).getKey().hashCode()), seed, mask);
+            if (null != keys[slot]) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (slots[j] == slot) {
+                    return false;
+                }
+            }
+            slots[i] = slot;
+        }
+        return true;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static int slot(int hash, int seed, int mask) {
+        int h = (hash ^ seed) * 0x9E3779B1;
+        return (h ^ (h >>> 15)) & mask;
+    }
+
+    @Nullable
+    public V get(@NonNull String key) {
+        if (null != fallback) {
+            return fallback.get(key);
+        }
+        int hash = spread(key.hashCode());
+        int slot = slot(hash, seeds[hash & (seeds.length - 1)], mask);
+        String candidate = keys[slot];
+        return key == candidate || (null != candidate && candidate.equals(key)) ? values.get(slot) : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of slots in the table, which is at least twice its size.
+     */
+    public int capacity() {
+        return null != fallback ? size : keys.length;
+    }
+}
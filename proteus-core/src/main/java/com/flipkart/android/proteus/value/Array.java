@@ -29,13 +29,29 @@ import java.util.List;
 
 /**
  * Array
+ * <p>
+ * Like an {@link ObjectValue}, an array shares its values with its {@link #snapshot()}s
+ * until either is modified, and can read its values lazily from a {@link Source}.
+ * </p>
  *
  * @author aditya.sharat
  */
 
 public class Array extends Value {
 
-    private final List<Value> values;
+    private List<Value> values;
+
+    /**
+     * Whether the values of this array may be shared with a snapshot, and have to be copied
+     * before they are modified.
+     */
+    private boolean shared;
+
+    /**
+     * The source of the values until they are read, {@code null} afterwards.
+     */
+    @Nullable
+    private volatile Source source;
 
     /**
      * Creates an empty Array.
@@ -55,8 +71,49 @@ public class Array extends Value {
         values = new ArrayList<>(capacity);
     }
 
+    /**
+     * Creates an array whose values are read from the source when they are first accessed.
+     *
+     * @param source the source of the values.
+     */
+    public Array(@NonNull Source source) {
+        this.values = new ArrayList<>();
+        this.source = source;
+    }
+
+    private Array(List<Value> values, boolean shared) {
+        this.values = values;
+        this.shared = shared;
+    }
+
+    /**
+     * Reads the values from the source, if they were not read yet.
+     */
+    private void load() {
+        if (null != source) {
+            read();
+        }
+    }
+
+    /**
+     * Reads the values into a new array under the lock of this one, and only then takes them
+     * over, so that other threads wait for all of them instead of seeing a part. The source is
+     * kept when it fails, so that every access fails the same way.
+     */
+    private synchronized void read() {
+        Source source = this.source;
+        if (null == source) {
+            return;
+        }
+        Array read = new Array();
+        source.read(read);
+        this.values = read.values;
+        this.source = null;
+    }
+
     @Override
     public Array copy() {
+        load();
         Array result = new Array(values.size());
         for (Value value : values) {
             result.add(value.copy());
@@ -64,12 +121,54 @@ public class Array extends Value {
         return result;
     }
 
+    /**
+     * Returns a snapshot of this array in constant time. The snapshot and this array are
+     * independent: modifying either, at any depth, is not visible in the other. Nested objects
+     * and arrays read from this array before the snapshot was taken must be read again before
+     * they are modified.
+     *
+     * @return a snapshot of this array.
+     */
+    @NonNull
+    public Array snapshot() {
+        load();
+        Array snapshot = new Array(values, true);
+        shared = true;
+        return snapshot;
+    }
+
+    /**
+     * @return true if this array and {@code other} still share their values, that is neither
+     * was modified since one was a snapshot of the other, in which case they are equal.
+     */
+    public boolean isSharedWith(@NonNull Array other) {
+        return this == other || (shared && other.shared && values == other.values);
+    }
+
+    /**
+     * Copies shared values, replacing the nested objects and arrays with snapshots, so that
+     * this array can be modified or hand out its values.
+     */
+    private void own() {
+        load();
+        if (!shared) {
+            return;
+        }
+        List<Value> values = new ArrayList<>(this.values.size());
+        for (Value value : this.values) {
+            values.add(ObjectValue.snapshot(value));
+        }
+        this.values = values;
+        shared = false;
+    }
+
     /**
      * Adds the specified boolean to self.
      *
      * @param bool the boolean that needs to be added to the array.
      */
     public void add(@Nullable Boolean bool) {
+        own();
         values.add(bool == null ? Null.INSTANCE : new Primitive(bool));
     }
 
@@ -79,6 +178,7 @@ public class Array extends Value {
      * @param character the character that needs to be added to the array.
      */
     public void add(@Nullable Character character) {
+        own();
         values.add(character == null ? Null.INSTANCE : new Primitive(character));
     }
 
@@ -88,6 +188,7 @@ public class Array extends Value {
      * @param number the number that needs to be added to the array.
      */
     public void add(@Nullable Number number) {
+        own();
         values.add(number == null ? Null.INSTANCE : new Primitive(number));
     }
 
@@ -97,6 +198,7 @@ public class Array extends Value {
      * @param string the string that needs to be added to the array.
      */
     public void add(@Nullable String string) {
+        own();
         values.add(string == null ? Null.INSTANCE : new Primitive(string));
     }
 
@@ -109,6 +211,7 @@ public class Array extends Value {
         if (value == null) {
             value = Null.INSTANCE;
         }
+        own();
         values.add(value);
     }
 
@@ -121,6 +224,7 @@ public class Array extends Value {
         if (value == null) {
             value = Null.INSTANCE;
         }
+        own();
         values.add(position, value);
     }
 
@@ -130,6 +234,8 @@ public class Array extends Value {
      * @param array the array whose values need to be added to the array.
      */
     public void addAll(@NonNull Array array) {
+        array.load();
+        own();
         values.addAll(array.values);
     }
 
@@ -143,6 +249,7 @@ public class Array extends Value {
      * @throws IndexOutOfBoundsException if the specified index is outside the array bounds
      */
     public Value set(int index, @NonNull Value value) {
+        own();
         return values.set(index, value);
     }
 
@@ -155,6 +262,7 @@ public class Array extends Value {
      * @since 2.3
      */
     public boolean remove(@NonNull Value value) {
+        own();
         return values.remove(value);
     }
 
@@ -169,6 +277,7 @@ public class Array extends Value {
      * @since 2.3
      */
     public Value remove(int index) {
+        own();
         return values.remove(index);
     }
 
@@ -180,6 +289,7 @@ public class Array extends Value {
      * @since 2.3
      */
     public boolean contains(@NonNull Value value) {
+        load();
         return values.contains(value);
     }
 
@@ -189,6 +299,7 @@ public class Array extends Value {
      * @return the number of values in the array.
      */
     public int size() {
+        load();
         return values.size();
     }
 
@@ -199,6 +310,7 @@ public class Array extends Value {
      * @return an iterator to navigate the values of the array.
      */
     public Iterator<Value> iterator() {
+        own();
         return values.iterator();
     }
 
@@ -211,16 +323,60 @@ public class Array extends Value {
      *                                   {@link #size()} of the array.
      */
     public Value get(int i) {
+        load();
+        Value value = values.get(i);
+        if (shared && (value instanceof ObjectValue || value instanceof Array)) {
+            own();
+            value = values.get(i);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the ith value without copying shared values, for callers which only read. Unlike
+     * {@link #get(int)} it does not change this array, so it may be called on the same array
+     * from several threads, but a nested object or array it returns must not be modified.
+     *
+     * @param i the index of the value that is being sought.
+     * @return the value present at the ith index.
+     * @throws IndexOutOfBoundsException if i is negative or greater than or equal to the
+     *                                   {@link #size()} of the array.
+     */
+    public Value peek(int i) {
+        load();
         return values.get(i);
     }
 
     @Override
     public boolean equals(java.lang.Object o) {
-        return (o == this) || (o instanceof Array && ((Array) o).values.equals(values));
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof Array)) {
+            return false;
+        }
+        load();
+        ((Array) o).load();
+        return ((Array) o).values.equals(values);
     }
 
     @Override
     public int hashCode() {
+        load();
         return values.hashCode();
     }
+
+    /**
+     * The source of the values of a lazily read array.
+     */
+    public interface Source {
+
+        /**
+         * Adds the values to the array. Called the first time a value is accessed, and again on
+         * the next access if it throws.
+         *
+         * @param array the array to add the values to.
+         */
+        void read(@NonNull Array array);
+    }
 }
@@ -28,7 +28,7 @@ import android.util.LruCache;
 import com.flipkart.android.proteus.Function;
 import com.flipkart.android.proteus.FunctionManager;
 import com.flipkart.android.proteus.ProteusConstants;
-import com.flipkart.android.proteus.processor.AttributeProcessor;
+import com.flipkart.android.proteus.parser.ParseHelper;
 import com.flipkart.android.proteus.toolbox.Result;
 import com.flipkart.android.proteus.toolbox.SimpleArrayIterator;
 import com.flipkart.android.proteus.toolbox.Utils;
@@ -36,7 +36,7 @@ import com.flipkart.android.proteus.toolbox.Utils;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.StringTokenizer;
-import java.util.regex.Matcher;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.regex.Pattern;
 
 /**
@@ -96,16 +96,22 @@ public abstract class Binding extends Value {
      * @param manager the {@link FunctionManager} to evaluate function bindings.
      */
     public static Binding valueOf(@NonNull final String value, Context context, FunctionManager manager) {
-        Matcher matcher = BINDING_PATTERN.matcher(value);
-        if (matcher.find()) {
-            if (matcher.group(3) != null) { // It is data binding
-                return DataBinding.valueOf(matcher.group(3));
-            } else { // It is function binding
-                return FunctionBinding.valueOf(matcher.group(1), matcher.group(2), context, manager);
-            }
-        } else {
-            throw new IllegalArgumentException(value + " is not a binding");
-        }
+        return BindingParser.parse(value, context, manager);
+    }
+
+    /**
+     * Parses the {@code String} like {@link #valueOf(String, Context, FunctionManager)}, but
+     * returns the result of a function binding which was folded into a constant when it was
+     * parsed, see {@link FunctionBinding#getConstant()}.
+     *
+     * @param value   the value to be parsed.
+     * @param context the {@link Context} of the caller.
+     * @param manager the {@link FunctionManager} to evaluate function bindings.
+     * @return a {@code Binding} or a {@link Primitive} constant.
+     */
+    @NonNull
+    public static Value compile(@NonNull final String value, Context context, FunctionManager manager) {
+        return BindingParser.fold(BindingParser.parse(value, context, manager));
     }
 
     /**
@@ -155,11 +161,22 @@ public abstract class Binding extends Value {
 
         private static final LruCache<String, DataBinding> DATA_BINDING_CACHE = new LruCache<>(64);
 
+        @NonNull
+        private final String path;
+
         @NonNull
         private final Token[] tokens;
 
-        private DataBinding(@NonNull Token[] tokens) {
+        @NonNull
+        private final Segment[] segments;
+
+        private final boolean isIndex;
+
+        private DataBinding(@NonNull String path, @NonNull Token[] tokens) {
+            this.path = path;
             this.tokens = tokens;
+            this.segments = compile(tokens);
+            this.isIndex = tokens.length == 1 && INDEX.equals(tokens[0].value);
         }
 
         @NonNull
@@ -185,7 +202,7 @@ public abstract class Binding extends Value {
                     tokens = Arrays.copyOf(tokens, tokens.length + 1);
                     tokens[tokens.length - 1] = new Token(token, false, false);
                 }
-                binding = new DataBinding(tokens);
+                binding = new DataBinding(path, tokens);
                 DATA_BINDING_CACHE.put(path, binding);
             }
             return binding;
@@ -325,78 +342,97 @@ public abstract class Binding extends Value {
         }
 
         @NonNull
-        private static Result resolve(Token[] tokens, Value data, int index) {
-            // replace INDEX with index value
-            if (tokens.length == 1 && INDEX.equals(tokens[0].value)) {
-                return Result.success(new Primitive(String.valueOf(index)));
-            } else {
-                Value elementToReturn = data;
-                Value tempElement;
-                Array tempArray;
+        private static Segment[] compile(@NonNull Token[] tokens) {
+            Segment[] segments = new Segment[tokens.length];
+            int count = 0;
+            for (Token token : tokens) {
+                if (ProteusConstants.EMPTY.equals(token.value)) {
+                    continue;
+                }
+                segments[count++] = Segment.valueOf(token.value);
+            }
+            return count < segments.length ? Arrays.copyOf(segments, count) : segments;
+        }
 
-                for (int i = 0; i < tokens.length; i++) {
-                    String segment = tokens[i].value;
-                    if (elementToReturn == null) {
-                        return Result.NO_SUCH_DATA_PATH_EXCEPTION;
-                    }
-                    if (elementToReturn.isNull()) {
-                        return Result.NULL_EXCEPTION;
-                    }
-                    if ("".equals(segment)) {
-                        continue;
-                    }
-                    if (elementToReturn.isArray()) {
-                        tempArray = elementToReturn.getAsArray();
+        /**
+         * @return the element at {@code index} of the array, or {@code null} if it has none.
+         */
+        @Nullable
+        private static Value element(@NonNull Array array, int index) {
+            return index < array.size() ? array.peek(index) : null;
+        }
 
-                        if (INDEX.equals(segment)) {
-                            if (index < tempArray.size()) {
-                                elementToReturn = tempArray.get(index);
-                            } else {
+        @NonNull
+        private static Result resolve(Segment[] segments, Value data, int index) {
+            Value elementToReturn = data;
+            Value tempElement;
+            Array tempArray;
+            Segment segment;
+
+            for (int i = 0; i < segments.length; i++) {
+                segment = segments[i];
+                if (elementToReturn == null) {
+                    return Result.NO_SUCH_DATA_PATH_EXCEPTION;
+                }
+                if (elementToReturn.isNull()) {
+                    return Result.NULL_EXCEPTION;
+                }
+                if (elementToReturn.isArray()) {
+                    tempArray = elementToReturn.getAsArray();
+                    switch (segment.type) {
+                        case Segment.TYPE_ARRAY_INDEX:
+                            // a literal index also replaces the data index for the rest of the path
+                            index = segment.index;
+                            elementToReturn = element(tempArray, index);
+                            if (null == elementToReturn) {
                                 return Result.NO_SUCH_DATA_PATH_EXCEPTION;
                             }
-                        } else if (ARRAY_DATA_LENGTH_REFERENCE.equals(segment)) {
-                            elementToReturn = new Primitive(tempArray.size());
-                        } else if (ARRAY_DATA_LAST_INDEX_REFERENCE.equals(segment)) {
-                            if (tempArray.size() == 0) {
+                            break;
+                        case Segment.TYPE_DATA_INDEX:
+                            elementToReturn = element(tempArray, index);
+                            if (null == elementToReturn) {
                                 return Result.NO_SUCH_DATA_PATH_EXCEPTION;
                             }
-                            elementToReturn = tempArray.get(tempArray.size() - 1);
-                        } else {
-                            try {
-                                index = Integer.parseInt(segment);
-                            } catch (NumberFormatException e) {
-                                return Result.INVALID_DATA_PATH_EXCEPTION;
-                            }
-                            if (index < tempArray.size()) {
-                                elementToReturn = tempArray.get(index);
-                            } else {
+                            break;
+                        case Segment.TYPE_ARRAY_LENGTH:
+                            elementToReturn = Primitive.valueOf(tempArray.size());
+                            break;
+                        case Segment.TYPE_ARRAY_LAST_INDEX:
+                            if (tempArray.size() == 0) {
                                 return Result.NO_SUCH_DATA_PATH_EXCEPTION;
                             }
-                        }
-                    } else if (elementToReturn.isObject()) {
-                        tempElement = elementToReturn.getAsObject().get(segment);
-                        if (tempElement != null) {
-                            elementToReturn = tempElement;
-                        } else {
-                            return Result.NO_SUCH_DATA_PATH_EXCEPTION;
-                        }
-                    } else if (elementToReturn.isPrimitive()) {
-                        return Result.INVALID_DATA_PATH_EXCEPTION;
+                            elementToReturn = tempArray.peek(tempArray.size() - 1);
+                            break;
+                        default:
+                            return Result.INVALID_DATA_PATH_EXCEPTION;
+                    }
+                } else if (elementToReturn.isObject()) {
+                    tempElement = elementToReturn.getAsObject().peek(segment.key);
+                    if (tempElement != null) {
+                        elementToReturn = tempElement;
                     } else {
                         return Result.NO_SUCH_DATA_PATH_EXCEPTION;
                     }
+                } else if (elementToReturn.isPrimitive()) {
+                    return Result.INVALID_DATA_PATH_EXCEPTION;
+                } else {
+                    return Result.NO_SUCH_DATA_PATH_EXCEPTION;
                 }
-                if (elementToReturn.isNull()) {
-                    return Result.NULL_EXCEPTION;
-                }
-                return Result.success(elementToReturn);
             }
+            if (elementToReturn.isNull()) {
+                return Result.NULL_EXCEPTION;
+            }
+            return Result.success(elementToReturn);
         }
 
         @NonNull
         @Override
         public Value evaluate(Context context, Value data, int index) {
-            Result result = resolve(tokens, data, index);
+            // replace INDEX with index value
+            if (isIndex) {
+                return Primitive.valueOf(String.valueOf(index));
+            }
+            Result result = resolve(segments, data, index);
             return result.isSuccess() ? result.value : Null.INSTANCE;
         }
 
@@ -416,6 +452,14 @@ public abstract class Binding extends Value {
             return new SimpleArrayIterator<>(this.tokens);
         }
 
+        /**
+         * @return the data path this binding was created from, eg. {@code a.b[0].c}
+         */
+        @NonNull
+        public String getPath() {
+            return path;
+        }
+
         public void assign(Value value, Value data, int index) {
             assign(tokens, value, data, index);
         }
@@ -427,65 +471,134 @@ public abstract class Binding extends Value {
      * function call. eg. @{ fn:add(1,2) }, @{ fn:and(@{a.b}, @{a.c}) }.
      * The format is @{  fn&lt;name>:(&lt;arguments&gt;) }, where &lt;name&gt;
      * is the name of the function and &lt;arguments&gt; is are comma separated
-     * arguments. Note that the arguments can be values (strings should be in single quotes) or
-     * {@link DataBinding} but NOT {@code FunctionBinding}.
+     * arguments. Note that the arguments can be values (strings should be in single quotes),
+     * {@link DataBinding} or nested {@code FunctionBinding}.
      * </p>
      *
      * @author adityasharat
      */
     public static class FunctionBinding extends Binding {
 
+        private static final AtomicReferenceFieldUpdater<FunctionBinding, Value[]> BUFFER =
+                AtomicReferenceFieldUpdater.newUpdater(FunctionBinding.class, Value[].class, "buffer");
+
+        private static final AtomicReferenceFieldUpdater<FunctionBinding, Function.Arguments> LAZY_ARGUMENTS =
+                AtomicReferenceFieldUpdater.newUpdater(FunctionBinding.class, Function.Arguments.class, "lazyArguments");
+
         @NonNull
         public final Function function;
 
         @Nullable
         private final Value[] arguments;
 
+        /**
+         * A resolved arguments array which can be reused by the next evaluation. It is taken
+         * atomically, so evaluations on other threads, or of the same binding nested in its
+         * own arguments, allocate their own array instead.
+         */
+        @SuppressWarnings("unused")
+        private volatile Value[] buffer;
+
+        /**
+         * Like {@link #buffer}, the unevaluated arguments of a {@link Function.Lazy} function
+         * which can be reused by the next evaluation.
+         */
+        @SuppressWarnings("unused")
+        private volatile Function.Arguments lazyArguments;
+
+        /**
+         * The function which is called, {@link #function} specialized for the arguments.
+         *
+         * @see Function#specialize(Value[])
+         */
+        @NonNull
+        private final Function target;
+
+        /**
+         * The {@link #arguments} compiled into evaluators, so that evaluating an argument
+         * does not have to check what kind of value it is.
+         */
+        @Nullable
+        private final Evaluator[] evaluators;
+
+        @Nullable
+        private final Primitive constant;
+
         public FunctionBinding(@NonNull Function function, @Nullable Value[] arguments) {
             this.arguments = arguments;
             this.function = function;
+            this.target = null != arguments ? function.specialize(arguments) : function;
+            this.constant = fold(this.target, arguments);
+            this.evaluators = null != arguments ? Evaluator.compile(arguments) : null;
         }
 
-        public static FunctionBinding valueOf(@NonNull String name, @NonNull String args, Context context, @NonNull FunctionManager manager) {
-            Function function = manager.get(name);
-            String[] tokens = FUNCTION_ARGS_DELIMITER.split(args);
-            Value[] arguments = new Value[tokens.length];
-            String token;
-            Value resolved;
-            for (int i = 0; i < tokens.length; i++) {
-                token = tokens[i].trim();
-                if (!token.isEmpty() && token.charAt(0) == '\'') {
-                    token = token.substring(1, token.length() - 1);
-                    resolved = new Primitive(token);
-                } else {
-                    resolved = AttributeProcessor.staticPreCompile(new Primitive(token), context, manager);
+        /**
+         * Calls a {@link Function#isPure() pure} function whose arguments are all literals.
+         *
+         * @return the result, or {@code null} if the call cannot be folded or does not
+         * return a {@link Primitive}.
+         */
+        @Nullable
+        private static Primitive fold(@NonNull Function function, @Nullable Value[] arguments) {
+            if (!function.isPure() || null == arguments) {
+                return null;
+            }
+            for (Value argument : arguments) {
+                if (!argument.isPrimitive()) {
+                    return null;
                 }
-                arguments[i] = resolved != null ? resolved : new Primitive(token);
             }
-            return new FunctionBinding(function, arguments);
+            try {
+                Value result = function.call(null, Null.INSTANCE, 0, arguments.clone());
+                return result.isPrimitive() ? result.getAsPrimitive() : null;
+            } catch (Exception e) {
+                return null;
+            }
         }
 
-        private static Value[] resolve(Context context, Value[] in, Value data, int index) {
+        public static FunctionBinding valueOf(@NonNull String name, @NonNull String args, Context context, @NonNull FunctionManager manager) {
+            Function function = manager.get(name);
+            Value[] arguments = BindingParser.parseArguments(args, context, manager);
+            return new FunctionBinding(function, arguments);
+        }
 
-            //noinspection ConstantConditions because we want it to crash, it is an illegal state anyway
-            Value[] out = new Value[in.length];
+        private static void resolve(Context context, Evaluator[] in, Value[] out, Value data, int index) {
             for (int i = 0; i < in.length; i++) {
-                out[i] = AttributeProcessor.evaluate(context, in[i], data, index);
+                out[i] = in[i].evaluate(context, data, index);
             }
-
-            return out;
         }
 
         public Iterator<Value> getTokens() {
             return new SimpleArrayIterator<>(this.arguments);
         }
 
+        /**
+         * @return the result of this function call if it was folded when the binding was
+         * created, {@code null} if it has to be evaluated against data.
+         * @see Function#isPure()
+         */
+        @Nullable
+        public Primitive getConstant() {
+            return constant;
+        }
+
+        boolean isArithmetic() {
+            return this.target instanceof Function.Arithmetic;
+        }
+
         @NonNull
         @Override
         public Value evaluate(Context context, Value data, int index) {
-            Value[] arguments = resolve(context, this.arguments, data, index);
+            if (null != this.constant) {
+                return this.constant;
+            }
             try {
-                return this.function.call(context, data, index, arguments);
+                if (this.target instanceof Function.Arithmetic) {
+                    return Primitive.valueOf(evaluateAsDouble(context, data, index));
+                } else if (this.target instanceof Function.Comparison) {
+                    return evaluateAsBoolean(context, data, index) ? ProteusConstants.TRUE : ProteusConstants.FALSE;
+                }
+                return call(context, data, index);
             } catch (Exception e) {
                 if (ProteusConstants.isLoggingEnabled()) {
                     Log.e(Utils.LIB_NAME, e.getMessage(), e);
@@ -494,6 +607,84 @@ public abstract class Binding extends Value {
             }
         }
 
+        /**
+         * Evaluates an {@link Function.Arithmetic} binding without boxing the result, or the
+         * results of the arithmetic bindings nested in its arguments.
+         *
+         * @throws Exception if the function fails, in which case {@link #evaluate} returns {@link Null}.
+         */
+        public double evaluateAsDouble(Context context, Value data, int index) throws Exception {
+            if (!(this.target instanceof Function.Arithmetic)) {
+                return call(context, data, index).getAsDouble();
+            }
+
+            //noinspection ConstantConditions because we want it to crash, it is an illegal state anyway
+            Evaluator[] arguments = this.evaluators;
+            Function.Arithmetic arithmetic = (Function.Arithmetic) this.target;
+            if (arguments.length < 1) {
+                return arithmetic.identity();
+            }
+
+            double result = arguments[0].evaluateAsDouble(context, data, index);
+            for (int i = 1; i < arguments.length; i++) {
+                result = arithmetic.apply(result, arguments[i].evaluateAsDouble(context, data, index));
+            }
+            return result;
+        }
+
+        /**
+         * Evaluates a {@link Function.Comparison} binding without resolving its arguments into an array.
+         *
+         * @throws Exception if the function fails, in which case {@link #evaluate} returns {@link Null}.
+         */
+        public boolean evaluateAsBoolean(Context context, Value data, int index) throws Exception {
+            if (!(this.target instanceof Function.Comparison)) {
+                return ParseHelper.parseBoolean(call(context, data, index));
+            }
+
+            //noinspection ConstantConditions because we want it to crash, it is an illegal state anyway
+            Evaluator[] arguments = this.evaluators;
+            if (arguments.length < 2) {
+                return false;
+            }
+            return ((Function.Comparison) this.target).test(
+                    arguments[0].evaluate(context, data, index),
+                    arguments[1].evaluate(context, data, index));
+        }
+
+        private Value call(Context context, Value data, int index) throws Exception {
+            if (this.target instanceof Function.Lazy) {
+                return callLazy(context, data, index);
+            }
+            //noinspection ConstantConditions because we want it to crash, it is an illegal state anyway
+            int length = this.evaluators.length;
+            Value[] arguments = BUFFER.getAndSet(this, null);
+            if (null == arguments) {
+                arguments = new Value[length];
+            }
+            try {
+                resolve(context, this.evaluators, arguments, data, index);
+                return this.target.call(context, data, index, arguments);
+            } finally {
+                Arrays.fill(arguments, null);
+                this.buffer = arguments;
+            }
+        }
+
+        private Value callLazy(Context context, Value data, int index) throws Exception {
+            Function.Arguments arguments = LAZY_ARGUMENTS.getAndSet(this, null);
+            if (null == arguments) {
+                //noinspection ConstantConditions because we want it to crash, it is an illegal state anyway
+                arguments = new Function.Arguments(this.evaluators);
+            }
+            try {
+                return ((Function.Lazy) this.target).call(context, data, index, arguments.bind(context, data, index));
+            } finally {
+                arguments.clear();
+                this.lazyArguments = arguments;
+            }
+        }
+
         @NonNull
         @Override
         public String toString() {
@@ -526,4 +717,50 @@ public abstract class Binding extends Value {
             return values;
         }
     }
+
+    /**
+     * <p>
+     * Segment is the compiled form of a {@link Token} of a {@link DataBinding}. The
+     * array access type of the token and its literal index, if any, are resolved once
+     * when the binding is created so that evaluating a data path does not need to
+     * compare or parse strings.
+     * </p>
+     */
+    private static class Segment {
+
+        static final int TYPE_OBJECT_KEY = 0;
+        static final int TYPE_ARRAY_INDEX = 1;
+        static final int TYPE_DATA_INDEX = 2;
+        static final int TYPE_ARRAY_LENGTH = 3;
+        static final int TYPE_ARRAY_LAST_INDEX = 4;
+
+        @NonNull
+        final String key;
+
+        final int type;
+
+        final int index;
+
+        private Segment(@NonNull String key, int type, int index) {
+            this.key = key;
+            this.type = type;
+            this.index = index;
+        }
+
+        @NonNull
+        static Segment valueOf(@NonNull String key) {
+            if (INDEX.equals(key)) {
+                return new Segment(key, TYPE_DATA_INDEX, -1);
+            } else if (ARRAY_DATA_LENGTH_REFERENCE.equals(key)) {
+                return new Segment(key, TYPE_ARRAY_LENGTH, -1);
+            } else if (ARRAY_DATA_LAST_INDEX_REFERENCE.equals(key)) {
+                return new Segment(key, TYPE_ARRAY_LAST_INDEX, -1);
+            }
+            try {
+                return new Segment(key, TYPE_ARRAY_INDEX, Integer.parseInt(key));
+            } catch (NumberFormatException e) {
+                return new Segment(key, TYPE_OBJECT_KEY, -1);
+            }
+        }
+    }
 }
@@ -0,0 +1,353 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.value;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.LruCache;
+
+import com.flipkart.android.proteus.FunctionManager;
+import com.flipkart.android.proteus.processor.AttributeProcessor;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * <p>
+ * BindingParser is a single pass scanner which parses the string form of a
+ * {@link Binding} into a {@link Binding.DataBinding} or a {@link Binding.FunctionBinding}.
+ * It accepts the same strings as {@link Binding#BINDING_PATTERN} and splits function
+ * arguments like {@link Binding#FUNCTION_ARGS_DELIMITER}, but without backtracking. Commas
+ * inside single quoted literals (a quote can be escaped with a {@code \}) and inside
+ * nested bindings do not split arguments, so nested function calls are parsed in place
+ * instead of being matched again.
+ * </p>
+ * <p>
+ * Function bindings are interned by their expression text, with the whitespace around
+ * arguments removed, so identical expressions across layouts share one instance. The
+ * instances are immutable and are shared only between parses with the same
+ * {@link FunctionManager}. Data bindings are interned by {@link Binding.DataBinding#valueOf(String)}.
+ * </p>
+ */
+class BindingParser {
+
+    private static final String FUNCTION_PREFIX = "fn:";
+
+    private static final char FUNCTION_ARGS_OPENING = '(';
+    private static final char FUNCTION_ARGS_CLOSING = ')';
+    private static final char FUNCTION_ARGS_DELIMITER = ',';
+
+    private static final char QUOTE = '\'';
+    private static final char ESCAPE = '\\';
+
+    private static final Value[] EMPTY_ARGUMENTS = new Value[0];
+
+    private static final LruCache<String, Interned> FUNCTION_BINDING_CACHE = new LruCache<>(512);
+
+    private BindingParser() {
+    }
+
+    /**
+     * Parses the specified {@code String} into a {@link Binding}.
+     *
+     * @param value   the string to parse, eg. @{a.b.c} or @{fn:add(1,@{a.b})}
+     * @param context the {@link Context} of the caller.
+     * @param manager the {@link FunctionManager} to resolve function bindings.
+     * @return the parsed {@link Binding}.
+     * @throws IllegalArgumentException if {@code value} is not a binding.
+     */
+    @NonNull
+    static Binding parse(@NonNull String value, Context context, FunctionManager manager) {
+        if (!Binding.isBindingValue(value)) {
+            throw new IllegalArgumentException(value + " is not a binding");
+        }
+        return parse(value, 0, value.length(), context, manager);
+    }
+
+    /**
+     * @return the constant of a folded function binding, the binding itself otherwise.
+     */
+    @NonNull
+    static Value fold(@NonNull Binding binding) {
+        if (binding instanceof Binding.FunctionBinding) {
+            Primitive constant = ((Binding.FunctionBinding) binding).getConstant();
+            if (null != constant) {
+                return constant;
+            }
+        }
+        return binding;
+    }
+
+    /**
+     * Parses the comma separated arguments of a function binding.
+     *
+     * @param args    the arguments, eg. 1,'a',@{a.b}
+     * @param context the {@link Context} of the caller.
+     * @param manager the {@link FunctionManager} to resolve nested function bindings.
+     * @return the parsed arguments.
+     */
+    @NonNull
+    static Value[] parseArguments(@NonNull String args, Context context, FunctionManager manager) {
+        return parseArguments(args, 0, args.length(), context, manager);
+    }
+
+    /**
+     * Parses {@code string[start, end)}, which must start with @{ and end with }.
+     */
+    @NonNull
+    private static Binding parse(String string, int start, int end, Context context, FunctionManager manager) {
+        int open = findFunctionArgs(string, start, end);
+        if (open < 0) {
+            return Binding.DataBinding.valueOf(string.substring(start + 2, end - 1));
+        }
+        String expression = start == 0 && end == string.length() ? string : string.substring(start, end);
+        Binding binding = lookup(expression, manager);
+        if (null != binding) {
+            return binding;
+        }
+        String normalized = normalize(expression);
+        if (normalized != expression) {
+            binding = lookup(normalized, manager);
+        }
+        if (null == binding) {
+            String name = string.substring(start + 2 + FUNCTION_PREFIX.length(), open);
+            Value[] arguments = parseArguments(string, open + 1, end - 2, context, manager);
+            binding = new Binding.FunctionBinding(manager.get(name), arguments);
+            if (dependsOnContext(arguments)) {
+                // resolved with the context of this caller, which another caller may not share
+                return binding;
+            }
+            FUNCTION_BINDING_CACHE.put(normalized, new Interned(manager, binding));
+        }
+        if (normalized != expression) {
+            FUNCTION_BINDING_CACHE.put(expression, new Interned(manager, binding));
+        }
+        return binding;
+    }
+
+    /**
+     * @return {@code true} if any of the arguments, or of the arguments of nested function
+     * bindings, is a resource, which is resolved with the {@link Context} it was parsed with.
+     * A resource which did not resolve is left as its text, which another context may resolve.
+     */
+    private static boolean dependsOnContext(@NonNull Value[] arguments) {
+        for (Value argument : arguments) {
+            if (dependsOnContext(argument)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean dependsOnContext(@NonNull Value argument) {
+        if (argument.isResource() || argument.isAttributeResource() || argument.isStyleResource()) {
+            return true;
+        }
+        if (argument.isPrimitive()) {
+            String string = argument.getAsString();
+            return Resource.isResource(string) || AttributeResource.isAttributeResource(string) || StyleResource.isStyleResource(string);
+        }
+        if (argument instanceof Binding.FunctionBinding) {
+            Iterator<Value> tokens = ((Binding.FunctionBinding) argument).getTokens();
+            while (tokens.hasNext()) {
+                if (dependsOnContext(tokens.next())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static Binding lookup(String expression, FunctionManager manager) {
+        Interned interned = FUNCTION_BINDING_CACHE.get(expression);
+        return null != interned && interned.manager == manager ? interned.binding : null;
+    }
+
+    /**
+     * Removes the whitespace around function arguments, which {@link #parseArgument} trims
+     * anyway. Whitespace which is the entire argument is kept, since removing it would turn
+     * a trailing blank argument into one which is discarded.
+     *
+     * @return {@code expression} itself if there is nothing to remove.
+     */
+    @NonNull
+    static String normalize(@NonNull String expression) {
+        StringBuilder builder = null;
+        int length = expression.length();
+        boolean quoted = false;
+        char c;
+        for (int i = 0; i < length; i++) {
+            c = expression.charAt(i);
+            if (quoted) {
+                if (c == ESCAPE && i + 1 < length) {
+                    if (null != builder) {
+                        builder.append(c);
+                    }
+                    c = expression.charAt(++i);
+                } else if (c == QUOTE) {
+                    quoted = false;
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c <= ' ') {
+                int j = i;
+                while (j < length && expression.charAt(j) <= ' ') {
+                    j++;
+                }
+                boolean before = i > 0 && isBoundary(expression.charAt(i - 1), true);
+                boolean after = j < length && isBoundary(expression.charAt(j), false);
+                if (before != after) {
+                    if (null == builder) {
+                        builder = new StringBuilder(length).append(expression, 0, i);
+                    }
+                    i = j - 1;
+                    continue;
+                }
+            }
+            if (null != builder) {
+                builder.append(c);
+            }
+        }
+        return null != builder ? builder.toString() : expression;
+    }
+
+    private static boolean isBoundary(char c, boolean opening) {
+        return c == FUNCTION_ARGS_DELIMITER || c == (opening ? FUNCTION_ARGS_OPENING : FUNCTION_ARGS_CLOSING);
+    }
+
+    /**
+     * Returns the position of the opening parenthesis of the arguments if {@code string[start, end)}
+     * is a function binding, -1 otherwise.
+     */
+    private static int findFunctionArgs(String string, int start, int end) {
+        int nameStart = start + 2 + FUNCTION_PREFIX.length();
+        if (!string.startsWith(FUNCTION_PREFIX, start + 2) || string.charAt(end - 2) != FUNCTION_ARGS_CLOSING) {
+            return -1;
+        }
+        char c;
+        for (int i = nameStart; i < end - 2; i++) {
+            c = string.charAt(i);
+            if (c == FUNCTION_ARGS_OPENING) {
+                return i > nameStart ? i : -1;
+            } else if (Character.isWhitespace(c)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    @NonNull
+    private static Value[] parseArguments(String string, int start, int end, Context context, FunctionManager manager) {
+        int[] bounds = new int[8];
+        int count = 0;
+        int depth = 0;
+        int tokenStart = start;
+        boolean quoted = false;
+        boolean split = false;
+        char c;
+
+        for (int i = start; i < end; i++) {
+            c = string.charAt(i);
+            if (quoted) {
+                if (c == ESCAPE) {
+                    i++;
+                } else if (c == QUOTE) {
+                    quoted = false;
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == Binding.BINDING_PREFIX_0 && i + 1 < end && string.charAt(i + 1) == Binding.BINDING_PREFIX_1) {
+                depth++;
+                i++;
+            } else if (c == Binding.BINDING_SUFFIX && depth > 0) {
+                depth--;
+            } else if (c == FUNCTION_ARGS_DELIMITER && depth == 0) {
+                bounds = add(bounds, count++, tokenStart, i);
+                tokenStart = i + 1;
+                split = true;
+            }
+        }
+        bounds = add(bounds, count++, tokenStart, end);
+
+        // like String.split(), trailing empty arguments are discarded
+        if (split) {
+            while (count > 0 && bounds[2 * (count - 1)] == bounds[2 * (count - 1) + 1]) {
+                count--;
+            }
+        }
+
+        if (count == 0) {
+            return EMPTY_ARGUMENTS;
+        }
+
+        Value[] arguments = new Value[count];
+        for (int i = 0; i < count; i++) {
+            arguments[i] = parseArgument(string, bounds[2 * i], bounds[2 * i + 1], context, manager);
+        }
+        return arguments;
+    }
+
+    @NonNull
+    private static Value parseArgument(String string, int start, int end, Context context, FunctionManager manager) {
+        while (start < end && string.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && string.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start < end && string.charAt(start) == QUOTE) {
+            return Primitive.valueOf(end - start > 1 ? string.substring(start + 1, end - 1) : "");
+        }
+        if (end - start > 3
+                && string.charAt(start) == Binding.BINDING_PREFIX_0
+                && string.charAt(start + 1) == Binding.BINDING_PREFIX_1
+                && string.charAt(end - 1) == Binding.BINDING_SUFFIX) {
+            return fold(parse(string, start, end, context, manager));
+        }
+        Primitive token = Primitive.valueOf(string.substring(start, end));
+        Value resolved = AttributeProcessor.staticPreCompile(token, context, manager);
+        return resolved != null ? resolved : token;
+    }
+
+    private static int[] add(int[] bounds, int index, int start, int end) {
+        if (2 * index + 1 >= bounds.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        bounds[2 * index] = start;
+        bounds[2 * index + 1] = end;
+        return bounds;
+    }
+
+    private static class Interned {
+
+        @Nullable
+        final FunctionManager manager;
+
+        @NonNull
+        final Binding binding;
+
+        Interned(@Nullable FunctionManager manager, @NonNull Binding binding) {
+            this.manager = manager;
+            this.binding = binding;
+        }
+    }
+}
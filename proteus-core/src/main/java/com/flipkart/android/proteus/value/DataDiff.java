@@ -0,0 +1,149 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.value;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * DataDiff compares two data trees and returns the paths at which they differ, in the syntax
+ * of data bindings, eg. {@code cart.items[0].price}. The paths can be passed to
+ * {@link com.flipkart.android.proteus.ProteusView.IncrementalManager#update(ObjectValue, java.util.Collection)}
+ * along with the new data, so that only the views which read a changed path are updated.
+ * </p>
+ * <p>
+ * Values which are the same instance, or objects and arrays which still share their storage
+ * with a {@link ObjectValue#snapshot() snapshot}, are not compared any further. An array which
+ * changed size is reported as a whole. When the trees differ at more than a limit of paths the
+ * root path {@link #ROOT} is returned instead, which affects every binding, since looking up
+ * that many paths would cost more than updating everything.
+ * </p>
+ */
+public class DataDiff {
+
+    /**
+     * The path of the whole tree.
+     */
+    public static final String ROOT = "";
+
+    public static final int DEFAULT_LIMIT = 64;
+
+    /**
+     * @return the paths at which the trees differ, empty if they are equal.
+     */
+    @NonNull
+    public static List<String> diff(@Nullable Value previous, @Nullable Value next) {
+        return diff(previous, next, DEFAULT_LIMIT);
+    }
+
+    /**
+     * @param limit the maximum number of paths to return, above which only {@link #ROOT} is.
+     * @return the paths at which the trees differ, empty if they are equal.
+     */
+    @NonNull
+    public static List<String> diff(@Nullable Value previous, @Nullable Value next, int limit) {
+        List<String> paths = new ArrayList<>();
+        if (!compare(previous, next, new StringBuilder(), paths, limit)) {
+            paths.clear();
+            paths.add(ROOT);
+        }
+        return paths;
+    }
+
+    /**
+     * @return {@code false} if more than {@code limit} paths differ.
+     */
+    private static boolean compare(@Nullable Value previous, @Nullable Value next, @NonNull StringBuilder path,
+                                   @NonNull List<String> out, int limit) {
+        if (previous == next) {
+            return true;
+        }
+        if (previous instanceof ObjectValue && next instanceof ObjectValue) {
+            return compare((ObjectValue) previous, (ObjectValue) next, path, out, limit);
+        }
+        if (previous instanceof Array && next instanceof Array) {
+            return compare((Array) previous, (Array) next, path, out, limit);
+        }
+        if (null != previous && previous.equals(next)) {
+            return true;
+        }
+        out.add(path.toString());
+        return out.size() <= limit;
+    }
+
+    private static boolean compare(@NonNull ObjectValue previous, @NonNull ObjectValue next, @NonNull StringBuilder path,
+                                   @NonNull List<String> out, int limit) {
+        if (previous.isSharedWith(next)) {
+            return true;
+        }
+        int length = path.length();
+        for (String key : next.keys()) {
+            append(path, key);
+            boolean within = compare(previous.peek(key), next.peek(key), path, out, limit);
+            path.setLength(length);
+            if (!within) {
+                return false;
+            }
+        }
+        for (String key : previous.keys()) {
+            if (null == next.peek(key)) {
+                append(path, key);
+                out.add(path.toString());
+                path.setLength(length);
+                if (out.size() > limit) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean compare(@NonNull Array previous, @NonNull Array next, @NonNull StringBuilder path,
+                                   @NonNull List<String> out, int limit) {
+        if (previous.isSharedWith(next)) {
+            return true;
+        }
+        if (previous.size() != next.size()) {
+            out.add(path.toString());
+            return out.size() <= limit;
+        }
+        int length = path.length();
+        for (int i = 0; i < next.size(); i++) {
+            path.append('[').append(i).append(']');
+            boolean within = compare(previous.peek(i), next.peek(i), path, out, limit);
+            path.setLength(length);
+            if (!within) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void append(@NonNull StringBuilder path, @NonNull String key) {
+        if (path.length() > 0) {
+            path.append('.');
+        }
+        path.append(key);
+    }
+}
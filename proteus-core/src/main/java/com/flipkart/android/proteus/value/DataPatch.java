@@ -0,0 +1,383 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.value;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * DataPatch applies a JSON Merge Patch (RFC 7386) or a JSON Patch (RFC 6902) to a data tree in
+ * place, and returns the paths it changed in the syntax of data bindings, the same as
+ * {@link DataDiff}. The paths can be passed to
+ * {@link com.flipkart.android.proteus.ProteusView.IncrementalManager#update(ObjectValue, java.util.Collection)}
+ * along with the patched data, so that only the views which read a changed path are updated.
+ * </p>
+ * <p>
+ * Values of the patch are added to the data as they are, not copied. Setting a member to a value
+ * equal to its current one is not reported as a change. An array which changed size is reported
+ * as a whole. The operations of a JSON Patch are applied one by one, and an operation which
+ * fails throws an {@link IllegalArgumentException} leaving the operations before it applied;
+ * apply the patch to a {@link ObjectValue#snapshot() snapshot} where that must not happen.
+ * </p>
+ */
+public class DataPatch {
+
+    private static final String ADD = "add";
+    private static final String REMOVE = "remove";
+    private static final String REPLACE = "replace";
+    private static final String MOVE = "move";
+    private static final String COPY = "copy";
+    private static final String TEST = "test";
+
+    private static final String END = "-";
+
+    /**
+     * Applies a JSON Merge Patch. Members of the patch which are {@code null} are removed from the
+     * data, objects are merged recursively and any other value replaces the member.
+     *
+     * @return the paths which changed, empty if the patch changed nothing.
+     * @throws IllegalArgumentException if the patch is not an object, since a patch which
+     *                                  replaces the whole data cannot be applied in place.
+     */
+    @NonNull
+    public static List<String> merge(@NonNull ObjectValue data, @NonNull Value patch) {
+        if (!patch.isObject()) {
+            throw new IllegalArgumentException("merge patch must be an object, was: " + patch);
+        }
+        List<String> paths = new ArrayList<>();
+        merge(data, patch.getAsObject(), new StringBuilder(), paths);
+        return paths;
+    }
+
+    /**
+     * Applies a JSON Patch, an array of operations addressed by JSON pointers, eg.
+     * {@code {"op": "replace", "path": "/cart/items/0/price", "value": 10}}.
+     *
+     * @return the paths which changed, without duplicates, empty if the patch changed nothing.
+     * @throws IllegalArgumentException if an operation is malformed, its path does not exist or
+     *                                  a {@code test} operation fails.
+     */
+    @NonNull
+    public static List<String> apply(@NonNull ObjectValue data, @NonNull Array patch) {
+        Set<String> paths = new LinkedHashSet<>();
+        for (int i = 0; i < patch.size(); i++) {
+            Value operation = patch.get(i);
+            if (!operation.isObject()) {
+                throw new IllegalArgumentException("operation must be an object, was: " + operation);
+            }
+            apply(data, operation.getAsObject(), paths);
+        }
+        return new ArrayList<>(paths);
+    }
+
+    private static void merge(@NonNull ObjectValue data, @NonNull ObjectValue patch, @NonNull StringBuilder path,
+                              @Nullable List<String> out) {
+        int length = path.length();
+        for (Map.Entry<String, Value> entry : patch.entrySet()) {
+            String key = entry.getKey();
+            Value value = entry.getValue();
+            DataDiff.append(path, key);
+            if (value.isNull()) {
+                if (null != data.remove(key) && null != out) {
+                    out.add(path.toString());
+                }
+            } else if (value.isObject()) {
+                Value current = data.get(key);
+                if (current instanceof ObjectValue) {
+                    merge((ObjectValue) current, value.getAsObject(), path, out);
+                } else {
+                    ObjectValue object = new ObjectValue();
+                    merge(object, value.getAsObject(), path, null);
+                    data.add(key, object);
+                    if (null != out) {
+                        out.add(path.toString());
+                    }
+                }
+            } else if (!value.equals(data.peek(key))) {
+                data.add(key, value);
+                if (null != out) {
+                    out.add(path.toString());
+                }
+            }
+            path.setLength(length);
+        }
+    }
+
+    private static void apply(@NonNull ObjectValue data, @NonNull ObjectValue operation, @NonNull Set<String> out) {
+        String op = string(operation, "op");
+        String[] pointer = pointer(string(operation, "path"));
+        switch (op) {
+            case ADD:
+                add(data, pointer, value(operation), out);
+                break;
+            case REMOVE:
+                remove(data, pointer, out);
+                break;
+            case REPLACE:
+                replace(data, pointer, value(operation), out);
+                break;
+            case MOVE:
+                String[] from = pointer(string(operation, "from"));
+                if (isPrefix(from, pointer)) {
+                    if (from.length == pointer.length) {
+                        break;
+                    }
+                    throw new IllegalArgumentException("cannot move a value into itself: " + operation);
+                }
+                add(data, pointer, remove(data, from, out), out);
+                break;
+            case COPY:
+                add(data, pointer, ObjectValue.snapshot(get(data, pointer(string(operation, "from")))), out);
+                break;
+            case TEST:
+                Value expected = value(operation);
+                if (!expected.equals(get(data, pointer))) {
+                    throw new IllegalArgumentException("test failed: " + operation);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("unknown operation: " + operation);
+        }
+    }
+
+    private static void add(@NonNull ObjectValue data, @NonNull String[] pointer, @NonNull Value value,
+                            @NonNull Set<String> out) {
+        if (pointer.length == 0) {
+            reset(data, value);
+            out.add(DataDiff.ROOT);
+            return;
+        }
+        StringBuilder path = new StringBuilder();
+        Value parent = parent(data, pointer, path, true);
+        String token = pointer[pointer.length - 1];
+        if (parent.isObject()) {
+            DataDiff.append(path, token);
+            if (!value.equals(parent.getAsObject().peek(token))) {
+                parent.getAsObject().add(token, value);
+                out.add(path.toString());
+            }
+        } else {
+            Array array = parent.getAsArray();
+            int index = END.equals(token) ? array.size() : index(array, token, array.size());
+            array.add(index, value);
+            out.add(path.toString());
+        }
+    }
+
+    private static void replace(@NonNull ObjectValue data, @NonNull String[] pointer, @NonNull Value value,
+                                @NonNull Set<String> out) {
+        if (pointer.length == 0) {
+            reset(data, value);
+            out.add(DataDiff.ROOT);
+            return;
+        }
+        StringBuilder path = new StringBuilder();
+        Value parent = parent(data, pointer, path, true);
+        String token = pointer[pointer.length - 1];
+        if (parent.isObject()) {
+            ObjectValue object = parent.getAsObject();
+            Value current = object.peek(token);
+            if (null == current) {
+                throw new IllegalArgumentException("no such path: " + join(pointer));
+            }
+            if (!value.equals(current)) {
+                object.add(token, value);
+                DataDiff.append(path, token);
+                out.add(path.toString());
+            }
+        } else {
+            Array array = parent.getAsArray();
+            int index = index(array, token, array.size() - 1);
+            if (!value.equals(array.peek(index))) {
+                array.set(index, value);
+                out.add(path.append('[').append(index).append(']').toString());
+            }
+        }
+    }
+
+    @NonNull
+    private static Value remove(@NonNull ObjectValue data, @NonNull String[] pointer, @NonNull Set<String> out) {
+        if (pointer.length == 0) {
+            throw new IllegalArgumentException("cannot remove the root");
+        }
+        StringBuilder path = new StringBuilder();
+        Value parent = parent(data, pointer, path, true);
+        String token = pointer[pointer.length - 1];
+        Value removed;
+        if (parent.isObject()) {
+            removed = parent.getAsObject().remove(token);
+            if (null == removed) {
+                throw new IllegalArgumentException("no such path: " + join(pointer));
+            }
+            DataDiff.append(path, token);
+        } else {
+            Array array = parent.getAsArray();
+            removed = array.remove(index(array, token, array.size() - 1));
+        }
+        out.add(path.toString());
+        return removed;
+    }
+
+    /**
+     * Replaces the members of the root with those of the value, since the root itself cannot
+     * be replaced in place.
+     */
+    private static void reset(@NonNull ObjectValue data, @NonNull Value value) {
+        if (!value.isObject()) {
+            throw new IllegalArgumentException("root can only be replaced by an object, was: " + value);
+        }
+        for (String key : new ArrayList<>(data.keys())) {
+            data.remove(key);
+        }
+        for (Map.Entry<String, Value> entry : value.getAsObject().entrySet()) {
+            data.add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @NonNull
+    private static Value get(@NonNull ObjectValue data, @NonNull String[] pointer) {
+        if (pointer.length == 0) {
+            return data;
+        }
+        // only reads, so shared storage is not copied
+        Value parent = parent(data, pointer, new StringBuilder(), false);
+        return child(parent, pointer[pointer.length - 1], pointer, false);
+    }
+
+    /**
+     * Walks to the container of the last token of the pointer, appending the path walked. The
+     * shared storage on the way is copied only if the container is to be written.
+     */
+    @NonNull
+    private static Value parent(@NonNull ObjectValue data, @NonNull String[] pointer, @NonNull StringBuilder path, boolean write) {
+        Value current = data;
+        for (int i = 0; i < pointer.length - 1; i++) {
+            String token = pointer[i];
+            if (current.isArray()) {
+                path.append('[').append(index(current.getAsArray(), token, current.getAsArray().size() - 1)).append(']');
+            } else {
+                DataDiff.append(path, token);
+            }
+            current = child(current, token, pointer, write);
+        }
+        if (!current.isObject() && !current.isArray()) {
+            throw new IllegalArgumentException("no such path: " + join(pointer));
+        }
+        return current;
+    }
+
+    @NonNull
+    private static Value child(@NonNull Value parent, @NonNull String token, @NonNull String[] pointer, boolean write) {
+        Value child = null;
+        if (parent.isObject()) {
+            ObjectValue object = parent.getAsObject();
+            child = write ? object.get(token) : object.peek(token);
+        } else if (parent.isArray()) {
+            Array array = parent.getAsArray();
+            int index = index(array, token, array.size() - 1);
+            child = write ? array.get(index) : array.peek(index);
+        }
+        if (null == child) {
+            throw new IllegalArgumentException("no such path: " + join(pointer));
+        }
+        return child;
+    }
+
+    private static int index(@NonNull Array array, @NonNull String token, int max) {
+        int index = -1;
+        if (token.length() > 0 && (token.length() == 1 || token.charAt(0) != '0')) {
+            try {
+                index = Integer.parseInt(token);
+            } catch (NumberFormatException e) {
+                index = -1;
+            }
+        }
+        if (index < 0 || index > max) {
+            throw new IllegalArgumentException("invalid index '" + token + "' for an array of size " + array.size());
+        }
+        return index;
+    }
+
+    /**
+     * Splits a JSON pointer into its unescaped tokens, none for the root.
+     */
+    @NonNull
+    static String[] pointer(@NonNull String pointer) {
+        if (pointer.length() == 0) {
+            return new String[0];
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("invalid pointer: " + pointer);
+        }
+        String[] tokens = pointer.substring(1).split("/", -1);
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i].indexOf('~') >= 0) {
+                tokens[i] = tokens[i].replace("~1", "/").replace("~0", "~");
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isPrefix(@NonNull String[] prefix, @NonNull String[] pointer) {
+        if (prefix.length > pointer.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (!prefix[i].equals(pointer[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @NonNull
+    private static String string(@NonNull ObjectValue operation, @NonNull String name) {
+        Value value = operation.get(name);
+        if (null == value || !value.isPrimitive()) {
+            throw new IllegalArgumentException("'" + name + "' is required: " + operation);
+        }
+        return value.getAsString();
+    }
+
+    @NonNull
+    private static Value value(@NonNull ObjectValue operation) {
+        Value value = operation.get("value");
+        if (null == value) {
+            throw new IllegalArgumentException("'value' is required: " + operation);
+        }
+        return value;
+    }
+
+    @NonNull
+    private static String join(@NonNull String[] pointer) {
+        StringBuilder builder = new StringBuilder();
+        for (String token : pointer) {
+            builder.append('/').append(token);
+        }
+        return builder.toString();
+    }
+}
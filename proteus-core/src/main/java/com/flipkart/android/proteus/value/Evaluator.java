@@ -0,0 +1,297 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.value;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+
+/**
+ * <p>
+ * Evaluator is a node of a compiled expression tree. The arguments of a
+ * {@link Binding.FunctionBinding} and the value of a {@link NestedBinding} are compiled into
+ * evaluators when the binding is created, one node type for each kind of value: literals,
+ * data paths, function calls and resources. Evaluating an argument is then a single call on
+ * its node, instead of checking the type of the value on every evaluation.
+ * </p>
+ */
+public abstract class Evaluator {
+
+    private static final Evaluator[] EMPTY = new Evaluator[0];
+
+    /**
+     * Compiles a function argument. Resources evaluate to their string value, the same as
+     * {@link com.flipkart.android.proteus.processor.AttributeProcessor#evaluate(Context, Value, Value, int)}.
+     */
+    @NonNull
+    public static Evaluator compile(@NonNull Value value) {
+        if (value.isBinding()) {
+            return compile(value.getAsBinding());
+        } else if (value.isResource()) {
+            return new ResourceNode(value.getAsResource());
+        } else if (value.isAttributeResource()) {
+            return new AttributeResourceNode(value.getAsAttributeResource());
+        } else if (value.isStyleResource()) {
+            return new StyleResourceNode(value.getAsStyleResource());
+        }
+        return new LiteralNode(value);
+    }
+
+    @NonNull
+    public static Evaluator[] compile(@NonNull Value[] values) {
+        if (values.length == 0) {
+            return EMPTY;
+        }
+        Evaluator[] evaluators = new Evaluator[values.length];
+        for (int i = 0; i < values.length; i++) {
+            evaluators[i] = compile(values[i]);
+        }
+        return evaluators;
+    }
+
+    /**
+     * Compiles the value of a {@link NestedBinding}. Objects and arrays are evaluated into new
+     * objects and arrays of their evaluated members, and anything other than a binding,
+     * including resources, evaluates to itself.
+     */
+    @NonNull
+    static Evaluator compileNested(@NonNull Value value) {
+        if (value.isBinding()) {
+            return compile(value.getAsBinding());
+        } else if (value.isObject()) {
+            ObjectValue object = value.getAsObject();
+            String[] keys = new String[object.size()];
+            Evaluator[] members = new Evaluator[object.size()];
+            int i = 0;
+            for (String key : object.keys()) {
+                keys[i] = key;
+                members[i] = compileNested(object.peek(key));
+                i++;
+            }
+            return new ObjectNode(keys, members);
+        } else if (value.isArray()) {
+            Array array = value.getAsArray();
+            Evaluator[] elements = new Evaluator[array.size()];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = compileNested(array.peek(i));
+            }
+            return new ArrayNode(elements);
+        }
+        return new LiteralNode(value);
+    }
+
+    @NonNull
+    private static Evaluator compile(@NonNull Binding binding) {
+        if (binding instanceof Binding.DataBinding) {
+            return new DataNode((Binding.DataBinding) binding);
+        } else if (binding instanceof Binding.FunctionBinding) {
+            Binding.FunctionBinding function = (Binding.FunctionBinding) binding;
+            if (null != function.getConstant()) {
+                return new LiteralNode(function.getConstant());
+            }
+            return function.isArithmetic() ? new ArithmeticNode(function) : new CallNode(function);
+        }
+        return new BindingNode(binding);
+    }
+
+    @NonNull
+    public abstract Value evaluate(Context context, Value data, int index);
+
+    /**
+     * Evaluates the node as a double.
+     *
+     * @throws Exception if the value is not a number.
+     */
+    public double evaluateAsDouble(Context context, Value data, int index) throws Exception {
+        return evaluate(context, data, index).getAsDouble();
+    }
+
+    private static class LiteralNode extends Evaluator {
+
+        @NonNull
+        private final Value value;
+
+        LiteralNode(@NonNull Value value) {
+            this.value = value;
+        }
+
+        @NonNull
+        @Override
+        public Value evaluate(Context context, Value data, int index) {
+            return value;
+        }
+    }
+
+    private static class DataNode extends Evaluator {
+
+        @NonNull
+        private final Binding.DataBinding binding;
+
+        DataNode(@NonNull Binding.DataBinding binding) {
+            this.binding = binding;
+        }
+
+        @NonNull
+        @Override
+        public Value evaluate(Context context, Value data, int index) {
+            return binding.evaluate(context, data, index);
+        }
+    }
+
+    private static class CallNode extends Evaluator {
+
+        @NonNull
+        final Binding.FunctionBinding binding;
+
+        CallNode(@NonNull Binding.FunctionBinding binding) {
+            this.binding = binding;
+        }
+
+        @NonNull
+        @Override
+        public Value evaluate(Context context, Value data, int index) {
+            return binding.evaluate(context, data, index);
+        }
+    }
+
+    /**
+     * A call to a {@link com.flipkart.android.proteus.Function.Arithmetic} function, which
+     * folds nested arithmetic as doubles.
+     */
+    private static class ArithmeticNode extends CallNode {
+
+        ArithmeticNode(@NonNull Binding.FunctionBinding binding) {
+            super(binding);
+        }
+
+        @Override
+        public double evaluateAsDouble(Context context, Value data, int index) throws Exception {
+            return binding.evaluateAsDouble(context, data, index);
+        }
+    }
+
+    private static class BindingNode extends Evaluator {
+
+        @NonNull
+        private final Binding binding;
+
+        BindingNode(@NonNull Binding binding) {
+            this.binding = binding;
+        }
+
+        @NonNull
+        @Override
+        public Value evaluate(Context context, Value data, int index) {
+            return binding.evaluate(context, data, index);
+        }
+    }
+
+    private static class ResourceNode extends Evaluator {
+
+        @NonNull
+        private final Resource resource;
+
+        ResourceNode(@NonNull Resource resource) {
+            this.resource = resource;
+        }
+
+        @NonNull
+        @Override
+        public Value evaluate(Context context, Value data, int index) {
+            return new Primitive(resource.getString(context));
+        }
+    }
+
+    private static class AttributeResourceNode extends Evaluator {
+
+        @NonNull
+        private final AttributeResource attribute;
+
+        AttributeResourceNode(@NonNull AttributeResource attribute) {
+            this.attribute = attribute;
+        }
+
+        @NonNull
+        @Override
+        public Value evaluate(Context context, Value data, int index) {
+            return new Primitive(attribute.apply(context).getString(0));
+        }
+    }
+
+    private static class StyleResourceNode extends Evaluator {
+
+        @NonNull
+        private final StyleResource style;
+
+        StyleResourceNode(@NonNull StyleResource style) {
+            this.style = style;
+        }
+
+        @NonNull
+        @Override
+        public Value evaluate(Context context, Value data, int index) {
+            return new Primitive(style.apply(context).getString(0));
+        }
+    }
+
+    private static class ObjectNode extends Evaluator {
+
+        @NonNull
+        private final String[] keys;
+
+        @NonNull
+        private final Evaluator[] members;
+
+        ObjectNode(@NonNull String[] keys, @NonNull Evaluator[] members) {
+            this.keys = keys;
+            this.members = members;
+        }
+
+        @NonNull
+        @Override
+        public Value evaluate(Context context, Value data, int index) {
+            ObjectValue evaluated = new ObjectValue();
+            for (int i = 0; i < keys.length; i++) {
+                evaluated.add(keys[i], members[i].evaluate(context, data, index));
+            }
+            return evaluated;
+        }
+    }
+
+    private static class ArrayNode extends Evaluator {
+
+        @NonNull
+        private final Evaluator[] elements;
+
+        ArrayNode(@NonNull Evaluator[] elements) {
+            this.elements = elements;
+        }
+
+        @NonNull
+        @Override
+        public Value evaluate(Context context, Value data, int index) {
+            Array evaluated = new Array(elements.length);
+            for (Evaluator element : elements) {
+                evaluated.add(element.evaluate(context, data, index));
+            }
+            return evaluated;
+        }
+    }
+}
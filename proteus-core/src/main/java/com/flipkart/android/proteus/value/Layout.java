@@ -22,6 +22,10 @@ package com.flipkart.android.proteus.value;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import com.flipkart.android.proteus.DataContext;
+import com.flipkart.android.proteus.InflationPlan;
+import com.flipkart.android.proteus.ProteusContext;
+import com.flipkart.android.proteus.ViewTypeParser;
 import com.flipkart.android.proteus.toolbox.Utils;
 
 import java.util.ArrayList;
@@ -31,6 +35,11 @@ import java.util.Map;
 
 /**
  * Layout
+ * <p>
+ * The {@link #attributes} and {@link #data} of a layout must not be changed once it has been
+ * inflated, since the {@link InflationPlan} and the {@link DataContext.Scope} compiled from them
+ * are cached on the layout. Use {@link #copy()} or {@link #merge(Layout)} to derive a new one.
+ * </p>
  *
  * @author aditya.sharat
  */
@@ -49,6 +58,12 @@ public class Layout extends Value {
     @Nullable
     public final ObjectValue extras;
 
+    @Nullable
+    private DataContext.Scope scope;
+
+    @Nullable
+    private InflationPlan plan;
+
     public Layout(@NonNull String type, @Nullable List<Attribute> attributes, @Nullable Map<String, Value> data, @Nullable ObjectValue extras) {
         this.type = type;
         this.attributes = attributes;
@@ -69,6 +84,33 @@ public class Layout extends Value {
         return new Layout(type, attributes, data, extras);
     }
 
+    /**
+     * @return the {@link #data} of this layout compiled for its {@link DataContext}, compiled
+     * on the first call; null if the layout has no data.
+     */
+    @Nullable
+    public DataContext.Scope getScope() {
+        if (null == scope && null != data) {
+            scope = DataContext.Scope.compile(data);
+        }
+        return scope;
+    }
+
+    /**
+     * @return the plan to inflate this layout with the parsers of the context, compiled on the
+     * first call and again when the parsers change.
+     */
+    @NonNull
+    public InflationPlan getPlan(@NonNull ProteusContext context) {
+        Map<String, ViewTypeParser> parsers = context.getProteusResources().getParsers();
+        InflationPlan plan = this.plan;
+        if (null == plan || !plan.isCompiledFor(parsers)) {
+            plan = InflationPlan.compile(this, parsers);
+            this.plan = plan;
+        }
+        return plan;
+    }
+
     public Layout merge(Layout include) {
 
         List<Attribute> attributes = null;
@@ -88,10 +130,13 @@ public class Layout extends Value {
             data = this.data;
         }
         if (include.data != null) {
-            if (data == null) {
-                data = new LinkedHashMap<>(include.data.size());
+            // never write into the data of this layout, its scope may be compiled already
+            Map<String, Value> merged = new LinkedHashMap<>(include.data.size() + (data != null ? data.size() : 0));
+            if (data != null) {
+                merged.putAll(data);
             }
-            data.putAll(include.data);
+            merged.putAll(include.data);
+            data = merged;
         }
 
         ObjectValue extras = new ObjectValue();
@@ -22,9 +22,6 @@ package com.flipkart.android.proteus.value;
 import android.content.Context;
 import android.support.annotation.NonNull;
 
-import java.util.Iterator;
-import java.util.Map;
-
 /**
  * NestedBinding
  *
@@ -37,13 +34,20 @@ public class NestedBinding extends Binding {
 
     private final Value value;
 
+    @NonNull
+    private final Evaluator evaluator;
+
     private NestedBinding(Value value) {
         this.value = value;
+        this.evaluator = Evaluator.compileNested(value);
     }
 
     /**
-     * @param value
-     * @return
+     * Creates a {@code NestedBinding} of the value. The value is compiled when the binding is
+     * created, so it must not be modified afterwards.
+     *
+     * @param value the value to evaluate, usually an {@link ObjectValue} of bindings.
+     * @return the {@code NestedBinding}.
      */
     @NonNull
     public static NestedBinding valueOf(@NonNull final Value value) {
@@ -58,7 +62,7 @@ public class NestedBinding extends Binding {
     @NonNull
     @Override
     public Value evaluate(Context context, Value data, int index) {
-        return evaluate(context, value, data, index);
+        return evaluator.evaluate(context, data, index);
     }
 
     @NonNull
@@ -67,44 +71,6 @@ public class NestedBinding extends Binding {
         return getClass().getName() + "@" + Integer.toHexString(hashCode());
     }
 
-    private Value evaluate(Context context, Binding binding, Value data, int index) {
-        return binding.getAsBinding().evaluate(context, data, index);
-    }
-
-    private Value evaluate(Context context, ObjectValue object, Value data, int index) {
-        ObjectValue evaluated = new ObjectValue();
-        String key;
-        Value value;
-        for (Map.Entry<String, Value> entry : object.entrySet()) {
-            key = entry.getKey();
-            value = evaluate(context, entry.getValue(), data, index);
-            evaluated.add(key, value);
-        }
-
-        return evaluated;
-    }
-
-    private Value evaluate(Context context, Array array, Value data, int index) {
-        Array evaluated = new Array(array.size());
-        Iterator<Value> iterator = array.iterator();
-        while (iterator.hasNext()) {
-            evaluated.add(evaluate(context, iterator.next(), data, index));
-        }
-        return evaluated;
-    }
-
-    private Value evaluate(Context context, Value value, Value data, int index) {
-        Value evaluated = value;
-        if (value.isBinding()) {
-            evaluated = evaluate(context, value.getAsBinding(), data, index);
-        } else if (value.isObject()) {
-            evaluated = evaluate(context, value.getAsObject(), data, index);
-        } else if (value.isArray()) {
-            evaluated = evaluate(context, value.getAsArray(), data, index);
-        }
-        return evaluated;
-    }
-
     @Override
     public Binding copy() {
         return this;
@@ -19,31 +19,196 @@
 
 package com.flipkart.android.proteus.value;
 
+import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
  * ObjectValue
+ * <p>
+ * Small objects are stored compactly: their keys are a {@link Shape} shared with every
+ * object which has the same keys, and their values a flat array. An object which grows
+ * larger than {@link Shape#MAX_SIZE}, has a {@code null} key or has a member removed by
+ * name is moved to a map.
+ * </p>
+ * <p>
+ * A {@link #snapshot()} shares the storage of the object instead of copying it. The storage
+ * is copied one level at a time, when either object is modified or hands out a nested object
+ * or array which could be modified, so a change copies only the path to it.
+ * </p>
+ * <p>
+ * An object created with a {@link Source} reads its members from it the first time any
+ * member is accessed.
+ * </p>
  *
  * @author aditya.sharat
  */
 
 public class ObjectValue extends Value {
 
-    private final HashMap<String, Value> members = new HashMap<>();
+    private static final Value[] EMPTY = new Value[0];
+
+    @NonNull
+    private Shape shape = Shape.EMPTY;
+
+    @NonNull
+    private Value[] values = EMPTY;
+
+    /**
+     * The members of the object once it is no longer compact, {@code null} until then.
+     */
+    @Nullable
+    private HashMap<String, Value> members;
+
+    /**
+     * Whether the storage of this object may be shared with a snapshot, and has to be copied
+     * before it is modified.
+     */
+    private boolean shared;
+
+    /**
+     * Changed whenever the members of this object are changed.
+     */
+    private int version;
+
+    /**
+     * The source of the members until they are read, {@code null} afterwards.
+     */
+    @Nullable
+    private volatile Source source;
+
+    public ObjectValue() {
+    }
+
+    /**
+     * Creates an object whose members are read from the source when they are first accessed.
+     *
+     * @param source the source of the members.
+     */
+    public ObjectValue(@NonNull Source source) {
+        this.source = source;
+    }
+
+    /**
+     * Reads the members from the source, if they were not read yet.
+     */
+    private void load() {
+        if (null != source) {
+            read();
+        }
+    }
+
+    /**
+     * Reads the members into a new object under the lock of this one, and only then takes them over,
+     * so that other threads wait for all of them instead of seeing a part. The source is kept
+     * when it fails, so that every access fails the same way.
+     */
+    private synchronized void read() {
+        Source source = this.source;
+        if (null == source) {
+            return;
+        }
+        ObjectValue read = new ObjectValue();
+        source.read(read);
+        this.shape = read.shape;
+        this.values = read.values;
+        this.members = read.members;
+        this.source = null;
+    }
 
     @Override
     public ObjectValue copy() {
+        load();
         ObjectValue result = new ObjectValue();
-        for (Map.Entry<String, Value> entry : members.entrySet()) {
-            result.add(entry.getKey(), entry.getValue().copy());
+        if (null != members) {
+            for (Map.Entry<String, Value> entry : members.entrySet()) {
+                result.add(entry.getKey(), entry.getValue().copy());
+            }
+        } else {
+            int size = shape.size();
+            result.shape = shape;
+            result.values = new Value[size];
+            for (int i = 0; i < size; i++) {
+                result.values[i] = values[i].copy();
+            }
         }
         return result;
     }
 
+    /**
+     * Returns a snapshot of this object in constant time. The snapshot and this object are
+     * independent: modifying either, at any depth, is not visible in the other. Nested objects
+     * and arrays read from this object before the snapshot was taken must be read again before
+     * they are modified.
+     *
+     * @return a snapshot of this object.
+     */
+    @NonNull
+    public ObjectValue snapshot() {
+        load();
+        ObjectValue snapshot = new ObjectValue();
+        snapshot.shape = shape;
+        snapshot.values = values;
+        snapshot.members = members;
+        snapshot.shared = shared = true;
+        return snapshot;
+    }
+
+    /**
+     * @return true if this object and {@code other} still share their storage, that is neither
+     * was modified since one was a snapshot of the other, in which case they are equal.
+     */
+    public boolean isSharedWith(@NonNull ObjectValue other) {
+        return this == other || (shared && other.shared && shape == other.shape && values == other.values && members == other.members);
+    }
+
+    /**
+     * @return a snapshot of {@code value} if it is an object or an array, otherwise the value.
+     */
+    static Value snapshot(Value value) {
+        if (value instanceof ObjectValue) {
+            return ((ObjectValue) value).snapshot();
+        } else if (value instanceof Array) {
+            return ((Array) value).snapshot();
+        }
+        return value;
+    }
+
+    /**
+     * Copies shared storage, replacing the nested objects and arrays with snapshots, so that
+     * this object can be modified or hand out its members.
+     */
+    private void own() {
+        if (!shared) {
+            return;
+        }
+        if (null != members) {
+            HashMap<String, Value> members = new HashMap<>(this.members);
+            for (Map.Entry<String, Value> entry : members.entrySet()) {
+                entry.setValue(snapshot(entry.getValue()));
+            }
+            this.members = members;
+        } else if (values.length > 0) {
+            Value[] values = this.values.clone();
+            for (int i = 0; i < shape.size(); i++) {
+                values[i] = snapshot(values[i]);
+            }
+            this.values = values;
+        }
+        shared = false;
+        version++;
+    }
+
     /**
      * Adds a member, which is a name-value pair, to self. The name must be a String, but the value
      * can be an arbitrary Value, thereby allowing you to inflate a full tree of Value
@@ -56,7 +221,68 @@ public class ObjectValue extends Value {
         if (value == null) {
             value = Null.INSTANCE;
         }
-        members.put(property, value);
+        load();
+        own();
+        version++;
+        if (null != members) {
+            members.put(property, value);
+            return;
+        }
+        int index = shape.indexOf(property);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+        Shape next = null != property ? shape.with(property) : null;
+        if (null == next) {
+            inflate().put(property, value);
+            return;
+        }
+        index = shape.size();
+        if (index >= values.length) {
+            values = Arrays.copyOf(values, Math.max(next.capacity, Math.min(Shape.MAX_SIZE, index * 2)));
+        }
+        values[index] = value;
+        shape = next;
+    }
+
+    /**
+     * Moves the members of a compact object into a map.
+     */
+    @NonNull
+    private HashMap<String, Value> inflate() {
+        HashMap<String, Value> members = this.members;
+        if (null == members) {
+            String[] keys = shape.keys;
+            members = new HashMap<>(Math.max(16, keys.length * 2));
+            for (int i = 0; i < keys.length; i++) {
+                members.put(keys[i], values[i]);
+            }
+            this.members = members;
+            this.shape = Shape.EMPTY;
+            this.values = EMPTY;
+        }
+        return members;
+    }
+
+    /**
+     * Removes the member at {@code index} from a compact object, keeping the order of the
+     * others, which are moved to the shape of the remaining keys.
+     */
+    private void removeAt(int index) {
+        own();
+        version++;
+        String[] keys = shape.keys;
+        Shape next = Shape.EMPTY;
+        for (int i = 0; i < keys.length; i++) {
+            if (i != index) {
+                next = next.with(keys[i]);
+            }
+        }
+        System.arraycopy(values, index + 1, values, index, keys.length - index - 1);
+        values[keys.length - 1] = null;
+        //noinspection ConstantConditions because it has fewer keys than the current shape
+        shape = next;
     }
 
     /**
@@ -67,7 +293,13 @@ public class ObjectValue extends Value {
      * @since 1.3
      */
     public Value remove(String property) {
-        return members.remove(property);
+        load();
+        if (null == members && shape.indexOf(property) < 0) {
+            return null;
+        }
+        own();
+        version++;
+        return inflate().remove(property);
     }
 
     /**
@@ -131,7 +363,20 @@ public class ObjectValue extends Value {
      * @return a set of members of this object.
      */
     public Set<Map.Entry<String, Value>> entrySet() {
-        return members.entrySet();
+        load();
+        own();
+        return null != members ? new MemberEntrySet(members.entrySet()) : new CompactEntrySet();
+    }
+
+    /**
+     * Returns a number which changes whenever a member of this object is added, replaced or
+     * removed, including through its {@link #entrySet()}, or its storage is copied away from a
+     * snapshot by a write or by handing out a nested object or array. Changes to the nested objects and arrays do not change it.
+     *
+     * @return the version of the members of this object.
+     */
+    public int getVersion() {
+        return version;
     }
 
     /**
@@ -140,7 +385,8 @@ public class ObjectValue extends Value {
      * @return the number of key/value pairs in the object.
      */
     public int size() {
-        return members.size();
+        load();
+        return null != members ? members.size() : shape.size();
     }
 
     /**
@@ -150,7 +396,8 @@ public class ObjectValue extends Value {
      * @return true if there is a member with the specified name, false otherwise.
      */
     public boolean has(String memberName) {
-        return members.containsKey(memberName);
+        load();
+        return null != members ? members.containsKey(memberName) : shape.indexOf(memberName) >= 0;
     }
 
     public boolean isPrimitive(String memberName) {
@@ -198,7 +445,31 @@ public class ObjectValue extends Value {
      * @return the member matching the name. Null if no such member exists.
      */
     public Value get(String memberName) {
-        return members.get(memberName);
+        Value value = peek(memberName);
+        if (shared && (value instanceof ObjectValue || value instanceof Array)) {
+            own();
+            value = peek(memberName);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the member with the specified name without copying shared storage, for callers
+     * which only read. Unlike {@link #get(String)} it does not change this object, so it may be
+     * called on the same object from several threads, but a nested object or array it returns
+     * must not be modified.
+     *
+     * @param memberName name of the member that is being requested.
+     * @return the member matching the name. Null if no such member exists.
+     */
+    @Nullable
+    public Value peek(String memberName) {
+        load();
+        if (null != members) {
+            return members.get(memberName);
+        }
+        int index = shape.indexOf(memberName);
+        return index >= 0 ? values[index] : null;
     }
 
     /**
@@ -208,7 +479,7 @@ public class ObjectValue extends Value {
      * @return the Primitive corresponding to the specified member.
      */
     public Primitive getAsPrimitive(String memberName) {
-        return (Primitive) members.get(memberName);
+        return (Primitive) get(memberName);
     }
 
     @Nullable
@@ -266,7 +537,7 @@ public class ObjectValue extends Value {
      * @return the Array corresponding to the specified member.
      */
     public Array getAsArray(String memberName) {
-        return (Array) members.get(memberName);
+        return (Array) get(memberName);
     }
 
     /**
@@ -278,7 +549,7 @@ public class ObjectValue extends Value {
     @Nullable
     public ObjectValue getAsObject(String memberName) {
         if (isObject(memberName)) {
-            return (ObjectValue) members.get(memberName);
+            return (ObjectValue) get(memberName);
         }
         return null;
     }
@@ -286,7 +557,7 @@ public class ObjectValue extends Value {
     @Nullable
     public Layout getAsLayout(String memberName) {
         if (isLayout(memberName)) {
-            return (Layout) members.get(memberName);
+            return (Layout) get(memberName);
         }
         return null;
     }
@@ -294,19 +565,167 @@ public class ObjectValue extends Value {
     @Nullable
     public Binding getAsBinding(String memberName) {
         if (isBinding(memberName)) {
-            return (Binding) members.get(memberName);
+            return (Binding) get(memberName);
         }
         return null;
     }
 
     @Override
     public boolean equals(java.lang.Object o) {
-        return (o == this) || (o instanceof ObjectValue && ((ObjectValue) o).members.equals(members));
+        return (o == this) || (o instanceof ObjectValue && ((ObjectValue) o).asMap().equals(asMap()));
     }
 
     @Override
     public int hashCode() {
-        return members.hashCode();
+        return asMap().hashCode();
+    }
+
+    /**
+     * @return the names of the members in an unmodifiable collection, without copying shared
+     * storage, to read the members with {@link #peek(String)}.
+     */
+    @NonNull
+    public Collection<String> keys() {
+        load();
+        return Collections.unmodifiableCollection(null != members ? members.keySet() : Arrays.asList(shape.keys));
+    }
+
+    @NonNull
+    private Map<String, Value> asMap() {
+        load();
+        return null != members ? members : new AbstractMap<String, Value>() {
+            @NonNull
+            @Override
+            public Set<Entry<String, Value>> entrySet() {
+                return new CompactEntrySet();
+            }
+
+            @Override
+            public Value get(java.lang.Object key) {
+                return key instanceof String ? peek((String) key) : null;
+            }
+        };
+    }
+
+    /**
+     * The members of an object stored in a map. Setting the value of an entry or removing one
+     * writes through to the map and changes the version of the object.
+     */
+    private class MemberEntrySet extends AbstractSet<Map.Entry<String, Value>> {
+
+        @NonNull
+        private final Set<Map.Entry<String, Value>> entries;
+
+        MemberEntrySet(@NonNull Set<Map.Entry<String, Value>> entries) {
+            this.entries = entries;
+        }
+
+        @NonNull
+        @Override
+        public Iterator<Map.Entry<String, Value>> iterator() {
+            final Iterator<Map.Entry<String, Value>> iterator = entries.iterator();
+            return new Iterator<Map.Entry<String, Value>>() {
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<String, Value> next() {
+                    final Map.Entry<String, Value> entry = iterator.next();
+                    return new AbstractMap.SimpleEntry<String, Value>(entry) {
+                        @Override
+                        public Value setValue(Value value) {
+                            version++;
+                            entry.setValue(value);
+                            return super.setValue(value);
+                        }
+                    };
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    version++;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    }
+
+    /**
+     * The members of a compact object in the order they were added. Setting the value of an
+     * entry writes through to the object, and removing one moves the object to the shape of
+     * the remaining keys.
+     */
+    private class CompactEntrySet extends AbstractSet<Map.Entry<String, Value>> {
+
+        @NonNull
+        @Override
+        public Iterator<Map.Entry<String, Value>> iterator() {
+            return new Iterator<Map.Entry<String, Value>>() {
+
+                String[] keys = shape.keys;
+
+                int index;
+
+                int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return index < keys.length;
+                }
+
+                @Override
+                public Map.Entry<String, Value> next() {
+                    if (index >= keys.length) {
+                        throw new NoSuchElementException();
+                    }
+                    last = index++;
+                    return new AbstractMap.SimpleEntry<String, Value>(keys[last], values[last]) {
+                        @Override
+                        public Value setValue(Value value) {
+                            ObjectValue.this.add(getKey(), value);
+                            return super.setValue(value);
+                        }
+                    };
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    removeAt(last);
+                    keys = shape.keys;
+                    index = last;
+                    last = -1;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return shape.size();
+        }
     }
 
+    /**
+     * The source of the members of a lazily read object.
+     */
+    public interface Source {
+
+        /**
+         * Adds the members to the object. Called the first time a member is accessed, and again
+         * on the next access if it throws.
+         *
+         * @param object the object to add the members to.
+         */
+        void read(@NonNull ObjectValue object);
+    }
 }
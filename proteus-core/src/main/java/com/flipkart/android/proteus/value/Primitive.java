@@ -35,6 +35,22 @@ public class Primitive extends Value {
             float.class, double.class, byte.class, boolean.class, char.class, Integer.class, Long.class,
             Short.class, Float.class, Double.class, Byte.class, Boolean.class, Character.class};
 
+    private static final Primitive TRUE = new OfBoolean(true);
+
+    private static final Primitive FALSE = new OfBoolean(false);
+
+    private static final int SMALL_INT_MIN = -128;
+
+    private static final int SMALL_INT_MAX = 1023;
+
+    private static final Primitive[] SMALL_INTS = new Primitive[SMALL_INT_MAX - SMALL_INT_MIN + 1];
+
+    static {
+        for (int i = 0; i < SMALL_INTS.length; i++) {
+            SMALL_INTS[i] = new OfInt(i + SMALL_INT_MIN);
+        }
+    }
+
     private java.lang.Object value;
 
     /**
@@ -83,6 +99,82 @@ public class Primitive extends Value {
         setValue(primitive);
     }
 
+    /**
+     * @return the shared {@code true} or {@code false} primitive.
+     */
+    public static Primitive valueOf(boolean bool) {
+        return bool ? TRUE : FALSE;
+    }
+
+    /**
+     * @return a primitive of the int, shared for small values.
+     */
+    public static Primitive valueOf(int number) {
+        if (number >= SMALL_INT_MIN && number <= SMALL_INT_MAX) {
+            return SMALL_INTS[number - SMALL_INT_MIN];
+        }
+        return new OfInt(number);
+    }
+
+    public static Primitive valueOf(long number) {
+        if (number >= SMALL_INT_MIN && number <= SMALL_INT_MAX) {
+            return SMALL_INTS[(int) number - SMALL_INT_MIN];
+        }
+        return new OfLong(number);
+    }
+
+    public static Primitive valueOf(double number) {
+        return new OfDouble(number);
+    }
+
+    /**
+     * Creates a primitive of the number. A {@link LazilyParsedNumber}, as read from JSON, keeps
+     * its text and is parsed at most once, and a small integer is shared.
+     */
+    public static Primitive valueOf(Number number) {
+        if (number instanceof Integer) {
+            return valueOf(number.intValue());
+        } else if (number instanceof Long) {
+            return valueOf(number.longValue());
+        } else if (number instanceof Double) {
+            return valueOf(number.doubleValue());
+        } else if (number instanceof LazilyParsedNumber) {
+            String text = number.toString();
+            int small = parseSmallInt(text);
+            return small != Integer.MIN_VALUE ? SMALL_INTS[small - SMALL_INT_MIN] : new OfNumber((LazilyParsedNumber) number);
+        }
+        return new Primitive(number);
+    }
+
+    /**
+     * Creates a primitive of the string, which is parsed at most once when it is used as a number.
+     */
+    public static Primitive valueOf(String string) {
+        return new OfString(string);
+    }
+
+    /**
+     * @return the value of {@code text} if it is the canonical text of a small int, that is
+     * the value prints back as the same text, otherwise {@link Integer#MIN_VALUE}.
+     */
+    private static int parseSmallInt(String text) {
+        int length = text.length();
+        int start = length > 0 && text.charAt(0) == '-' ? 1 : 0;
+        if (length - start < 1 || length - start > 4 || (text.charAt(start) == '0' && (length - start > 1 || start == 1))) {
+            return Integer.MIN_VALUE;
+        }
+        int value = 0;
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return Integer.MIN_VALUE;
+            }
+            value = value * 10 + (c - '0');
+        }
+        value = start == 1 ? -value : value;
+        return value >= SMALL_INT_MIN && value <= SMALL_INT_MAX ? value : Integer.MIN_VALUE;
+    }
+
     static boolean isPrimitiveOrString(java.lang.Object target) {
         if (target instanceof String) {
             return true;
@@ -263,7 +355,9 @@ public class Primitive extends Value {
             return (int) (value ^ (value >>> 32));
         }
         if (value instanceof Number) {
-            long value = Double.doubleToLongBits(getAsNumber().doubleValue());
+            // a whole double hashes like the equal long, since they are equal
+            double number = getAsNumber().doubleValue();
+            long value = number == (long) number ? (long) number : Double.doubleToLongBits(number);
             return (int) (value ^ (value >>> 32));
         }
         return value.hashCode();
@@ -274,7 +368,7 @@ public class Primitive extends Value {
         if (this == obj) {
             return true;
         }
-        if (obj == null || getClass() != obj.getClass()) {
+        if (!(obj instanceof Primitive)) {
             return false;
         }
         Primitive other = (Primitive) obj;
@@ -306,4 +400,202 @@ public class Primitive extends Value {
     public String getAsDoubleQuotedString() {
         return '\"' + getAsString() + '\"';
     }
+
+    private static final class OfBoolean extends Primitive {
+
+        private final boolean value;
+
+        OfBoolean(boolean value) {
+            super(Boolean.valueOf(value));
+            this.value = value;
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            return value;
+        }
+
+        @Override
+        public String getAsString() {
+            return value ? "true" : "false";
+        }
+    }
+
+    private static final class OfInt extends Primitive {
+
+        private final int value;
+
+        OfInt(int value) {
+            super(Integer.valueOf(value));
+            this.value = value;
+        }
+
+        @Override
+        public int getAsInt() {
+            return value;
+        }
+
+        @Override
+        public long getAsLong() {
+            return value;
+        }
+
+        @Override
+        public float getAsFloat() {
+            return value;
+        }
+
+        @Override
+        public double getAsDouble() {
+            return value;
+        }
+
+        @Override
+        public String getAsString() {
+            return Integer.toString(value);
+        }
+    }
+
+    private static final class OfLong extends Primitive {
+
+        private final long value;
+
+        OfLong(long value) {
+            super(Long.valueOf(value));
+            this.value = value;
+        }
+
+        @Override
+        public long getAsLong() {
+            return value;
+        }
+
+        @Override
+        public float getAsFloat() {
+            return value;
+        }
+
+        @Override
+        public double getAsDouble() {
+            return value;
+        }
+
+        @Override
+        public String getAsString() {
+            return Long.toString(value);
+        }
+    }
+
+    private static final class OfDouble extends Primitive {
+
+        private final double value;
+
+        OfDouble(double value) {
+            super(Double.valueOf(value));
+            this.value = value;
+        }
+
+        @Override
+        public double getAsDouble() {
+            return value;
+        }
+
+        @Override
+        public String getAsString() {
+            return Double.toString(value);
+        }
+    }
+
+    /**
+     * A number read from text, which keeps the text and caches the parsed values. The cached
+     * values are immutable, so racing threads at most parse twice.
+     */
+    private static final class OfNumber extends Primitive {
+
+        private final LazilyParsedNumber number;
+
+        private Double asDouble;
+
+        private Integer asInt;
+
+        OfNumber(LazilyParsedNumber number) {
+            super(number);
+            this.number = number;
+        }
+
+        @Override
+        public double getAsDouble() {
+            Double value = asDouble;
+            if (null == value) {
+                value = number.doubleValue();
+                asDouble = value;
+            }
+            return value;
+        }
+
+        @Override
+        public int getAsInt() {
+            Integer value = asInt;
+            if (null == value) {
+                value = number.intValue();
+                asInt = value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * A string, which caches the number it parses to. Strings which are not numbers are parsed
+     * and fail on every call, as before.
+     */
+    private static final class OfString extends Primitive {
+
+        private final String string;
+
+        private LazilyParsedNumber number;
+
+        private Double asDouble;
+
+        private Integer asInt;
+
+        OfString(String string) {
+            super(string);
+            this.string = string;
+        }
+
+        @Override
+        public String getAsString() {
+            return string;
+        }
+
+        @Override
+        public Number getAsNumber() {
+            LazilyParsedNumber value = number;
+            if (null == value) {
+                value = new LazilyParsedNumber(string);
+                number = value;
+            }
+            return value;
+        }
+
+        @Override
+        public double getAsDouble() {
+            Double value = asDouble;
+            if (null == value) {
+                value = Double.parseDouble(string);
+                asDouble = value;
+            }
+            return value;
+        }
+
+        @Override
+        public int getAsInt() {
+            Integer value = asInt;
+            if (null == value) {
+                value = Integer.parseInt(string);
+                asInt = value;
+            }
+            return value;
+        }
+    }
 }
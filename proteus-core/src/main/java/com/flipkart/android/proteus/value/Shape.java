@@ -0,0 +1,170 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.value;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.HashMap;
+
+/**
+ * <p>
+ * Shape is the key layout of a compact {@link ObjectValue}: the keys of the object in the
+ * order they were added. Objects with the same keys added in the same order share one shape,
+ * and keep only their values in a flat array indexed by it.
+ * </p>
+ * <p>
+ * Shapes form a tree rooted at {@link #EMPTY}; adding a key to an object moves it to a
+ * child of its shape. The children are cached, so the objects of a homogeneous payload
+ * all end up on the same chain of shapes.
+ * </p>
+ */
+final class Shape {
+
+    /**
+     * The maximum number of keys in a shape. Larger objects are stored in a map.
+     */
+    static final int MAX_SIZE = 32;
+
+    static final Shape EMPTY = new Shape(null, null);
+
+    /**
+     * The maximum number of children of a shape. When an irregular payload, say one keyed by
+     * ids, adds more, the children are discarded. Objects keep the shapes they already have.
+     */
+    private static final int MAX_TRANSITIONS = 64;
+
+    /**
+     * The size above which keys are looked up in {@link #table} instead of scanning
+     * {@link #keys}.
+     */
+    private static final int LINEAR_SEARCH_SIZE = 8;
+
+    @Nullable
+    private final Shape parent;
+
+    @NonNull
+    final String[] keys;
+
+    @NonNull
+    private final HashMap<String, Shape> transitions = new HashMap<>();
+
+    /**
+     * An open addressed hash table of the positions of the keys plus one, or {@code null}
+     * if the shape is small enough to be scanned.
+     */
+    @Nullable
+    private final int[] table;
+
+    /**
+     * The size of the largest shape reached from this one, used to size the value array of
+     * new objects. It is only a hint, and races on it are harmless.
+     */
+    int capacity;
+
+    private Shape(@Nullable Shape parent, @Nullable String key) {
+        this.parent = parent;
+        if (null == parent) {
+            this.keys = new String[0];
+        } else {
+            this.keys = new String[parent.keys.length + 1];
+            System.arraycopy(parent.keys, 0, this.keys, 0, parent.keys.length);
+            this.keys[parent.keys.length] = key;
+        }
+        this.capacity = this.keys.length;
+        this.table = keys.length > LINEAR_SEARCH_SIZE ? table(keys) : null;
+    }
+
+    @NonNull
+    private static int[] table(@NonNull String[] keys) {
+        int[] table = new int[Integer.highestOneBit(keys.length) * 4];
+        int mask = table.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            int slot = keys[i].hashCode() & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * @return the position of {@code key} in this shape, or {@code -1} if it is not present.
+     * A shape never holds a {@code null} key.
+     */
+    int indexOf(@Nullable String key) {
+        if (null == key) {
+            return -1;
+        }
+        String[] keys = this.keys;
+        int[] table = this.table;
+        if (null == table) {
+            for (int i = 0; i < keys.length; i++) {
+                //noinspection StringEquality because keys are often interned
+                if (keys[i] == key || keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = table.length - 1;
+        int slot = key.hashCode() & mask;
+        int position;
+        while ((position = table[slot]) != 0) {
+            String candidate = keys[position - 1];
+            //noinspection StringEquality because keys are often interned
+            if (candidate == key || candidate.equals(key)) {
+                return position - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the shape with {@code key} added after the keys of this shape, or {@code null}
+     * if it would have more than {@link #MAX_SIZE} keys. The key must not already be present.
+     */
+    @Nullable
+    Shape with(@NonNull String key) {
+        if (keys.length >= MAX_SIZE) {
+            return null;
+        }
+        synchronized (transitions) {
+            Shape shape = transitions.get(key);
+            if (null == shape) {
+                if (transitions.size() >= MAX_TRANSITIONS) {
+                    transitions.clear();
+                }
+                shape = new Shape(this, key);
+                transitions.put(key, shape);
+                for (Shape p = this; null != p && p.capacity < shape.keys.length; p = p.parent) {
+                    p.capacity = shape.keys.length;
+                }
+            }
+            return shape;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus;
+
+import com.flipkart.android.proteus.exceptions.ProteusInflateException;
+import com.flipkart.android.proteus.value.Layout;
+import com.flipkart.android.proteus.value.ObjectValue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * AsyncProteusLayoutInflaterTest
+ */
+public class AsyncProteusLayoutInflaterTest {
+
+    private final Layout layout = new Layout("View", null, null, null);
+    private final ObjectValue data = new ObjectValue();
+
+    private ProteusLayoutInflater inflater;
+    private ProteusView view;
+    private Queue worker;
+    private Queue main;
+    private Recorder callback;
+    private AsyncProteusLayoutInflater async;
+
+    @Before
+    public void before() {
+        inflater = mock(ProteusLayoutInflater.class);
+        view = mock(ProteusView.class);
+        when(inflater.inflate(layout, data, null, -1)).thenReturn(view);
+        worker = new Queue();
+        main = new Queue();
+        callback = new Recorder();
+        async = new AsyncProteusLayoutInflater(inflater, worker, main);
+    }
+
+    @Test
+    public void inflate() throws Exception {
+        async.inflate(layout, data, callback);
+
+        assertThat(callback.views.isEmpty(), is(true));
+        worker.run();
+        assertThat(callback.views.isEmpty(), is(true));
+        main.run();
+        assertThat(callback.views.size(), is(1));
+        assertThat(callback.views.get(0) == view, is(true));
+    }
+
+    @Test
+    public void error() throws Exception {
+        when(inflater.inflate("missing", data, null, -1)).thenThrow(new ProteusInflateException("missing"));
+
+        async.inflate("missing", data, callback);
+        worker.run();
+        main.run();
+
+        assertThat(callback.views.isEmpty(), is(true));
+        assertThat(callback.errors.size(), is(1));
+    }
+
+    @Test
+    public void error_thrown_as_error() throws Exception {
+        StackOverflowError error = new StackOverflowError();
+        when(inflater.inflate("deep", data, null, -1)).thenThrow(error);
+
+        async.inflate("deep", data, callback);
+        worker.run();
+        main.run();
+
+        assertThat(callback.views.isEmpty(), is(true));
+        assertThat(callback.errors.size(), is(1));
+        assertThat(callback.errors.get(0) == error, is(true));
+    }
+
+    @Test
+    public void cancel_before_inflation() throws Exception {
+        async.inflate(layout, data, callback).cancel();
+        worker.run();
+        main.run();
+
+        verify(inflater, never()).inflate(any(Layout.class), any(ObjectValue.class), any(android.view.ViewGroup.class), anyInt());
+        assertThat(callback.views.isEmpty(), is(true));
+    }
+
+    @Test
+    public void cancel_before_delivery() throws Exception {
+        AsyncProteusLayoutInflater.Request first = async.inflate(layout, data, callback);
+        async.inflate(layout, data, callback);
+        worker.run();
+        first.cancel();
+        main.run();
+        assertThat(callback.views.size(), is(1));
+
+        async.inflate(layout, data, callback);
+        worker.run();
+        async.cancelAll();
+        main.run();
+        assertThat(callback.views.size(), is(1));
+    }
+
+    private static class Queue implements Executor {
+
+        private final List<Runnable> runnables = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable runnable) {
+            runnables.add(runnable);
+        }
+
+        void run() {
+            List<Runnable> runnables = new ArrayList<>(this.runnables);
+            this.runnables.clear();
+            for (Runnable runnable : runnables) {
+                runnable.run();
+            }
+        }
+    }
+
+    private static class Recorder implements AsyncProteusLayoutInflater.Callback {
+
+        final List<ProteusView> views = new ArrayList<>();
+        final List<Throwable> errors = new ArrayList<>();
+
+        @Override
+        public void onInflated(ProteusView view) {
+            views.add(view);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            errors.add(e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus;
+
+import com.flipkart.android.proteus.value.Binding;
+import com.flipkart.android.proteus.value.ObjectValue;
+import com.flipkart.android.proteus.value.Primitive;
+import com.flipkart.android.proteus.value.Value;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/**
+ * BindingMemoTest
+ */
+public class BindingMemoTest {
+
+    @Test
+    public void inactive_outside_pass() throws Exception {
+        BindingMemo memo = new BindingMemo();
+        Binding binding = Binding.DataBinding.valueOf("a.b");
+        ObjectValue data = new ObjectValue();
+
+        memo.put(binding, data, 0, new Primitive(1));
+
+        assertThat(memo.isActive(), is(false));
+        assertThat(memo.get(binding, data, 0), nullValue());
+    }
+
+    @Test
+    public void keyed_by_binding_data_and_index() throws Exception {
+        BindingMemo memo = new BindingMemo();
+        Binding binding = Binding.DataBinding.valueOf("a.b");
+        ObjectValue data = new ObjectValue();
+        Value value = new Primitive(1);
+
+        memo.begin();
+        memo.put(binding, data, 0, value);
+
+        assertThat(memo.get(binding, data, 0) == value, is(true));
+        assertThat(memo.get(binding, data, 1), nullValue());
+        assertThat(memo.get(binding, new ObjectValue(), 0), nullValue());
+        assertThat(memo.get(Binding.DataBinding.valueOf("a.c"), data, 0), nullValue());
+        assertThat(memo.getHitCount(), is(1L));
+        assertThat(memo.getMissCount(), is(3L));
+        memo.end();
+    }
+
+    @Test
+    public void cleared_when_outermost_pass_ends() throws Exception {
+        BindingMemo memo = new BindingMemo();
+        Binding binding = Binding.DataBinding.valueOf("a.b");
+        ObjectValue data = new ObjectValue();
+
+        memo.begin();
+        memo.begin();
+        memo.put(binding, data, 0, new Primitive(1));
+        memo.end();
+
+        assertThat(memo.get(binding, data, 0).getAsInt(), is(1));
+
+        memo.end();
+        memo.begin();
+
+        assertThat(memo.get(binding, data, 0), nullValue());
+        memo.end();
+    }
+
+    @Test
+    public void grows() throws Exception {
+        BindingMemo memo = new BindingMemo();
+        Binding binding = Binding.DataBinding.valueOf("a.b");
+        ObjectValue data = new ObjectValue();
+
+        memo.begin();
+        for (int i = 0; i < 1000; i++) {
+            memo.put(binding, data, i, new Primitive(i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertThat(memo.get(binding, data, i).getAsInt(), is(i));
+        }
+        assertThat(memo.getHitRate(), is(1f));
+        memo.end();
+    }
+
+    @Test
+    public void misses_data_rewritten_in_place() throws Exception {
+        BindingMemo memo = new BindingMemo();
+        Binding binding = Binding.DataBinding.valueOf("a");
+        ObjectValue data = new ObjectValue();
+        data.addProperty("a", 1);
+
+        memo.begin();
+        memo.put(binding, data, 0, binding.evaluate(null, data, 0));
+        data.addProperty("a", 2);
+
+        assertThat(memo.get(binding, data, 0), nullValue());
+
+        memo.put(binding, data, 0, binding.evaluate(null, data, 0));
+
+        assertThat(memo.get(binding, data, 0).getAsInt(), is(2));
+        memo.end();
+    }
+
+    @Test
+    public void misses_snapshot_copied_in_place() throws Exception {
+        BindingMemo memo = new BindingMemo();
+        Binding binding = Binding.DataBinding.valueOf("a");
+        ObjectValue data = new ObjectValue();
+        data.add("a", new ObjectValue());
+        data.snapshot();
+
+        memo.begin();
+        memo.put(binding, data, 0, new Primitive(0));
+        // handing out a nested object replaces it with a snapshot
+        data.get("a");
+
+        assertThat(memo.get(binding, data, 0), nullValue());
+        memo.end();
+    }
+}
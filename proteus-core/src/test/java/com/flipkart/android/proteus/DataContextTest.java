@@ -0,0 +1,123 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus;
+
+import com.flipkart.android.proteus.value.Binding;
+import com.flipkart.android.proteus.value.ObjectValue;
+import com.flipkart.android.proteus.value.Primitive;
+import com.flipkart.android.proteus.value.Value;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * DataContextTest
+ */
+public class DataContextTest {
+
+    private static ObjectValue product(int price) {
+        ObjectValue product = new ObjectValue();
+        product.addProperty("price", price);
+        product.addProperty("title", "product");
+        ObjectValue data = new ObjectValue();
+        data.add("product", product);
+        return data;
+    }
+
+    @Test
+    public void scope() throws Exception {
+        Map<String, Value> scope = new LinkedHashMap<>();
+        scope.put("item", Binding.valueOf("@{product}", null, null));
+        scope.put("price", Binding.valueOf("@{item.price}", null, null));
+        scope.put("title", Binding.valueOf("@{product.title}", null, null));
+        scope.put("label", new Primitive("sale"));
+
+        DataContext dataContext = DataContext.create(null, product(10), 0, scope);
+        ObjectValue data = dataContext.getData();
+
+        assertThat(data.getAsInteger("price"), is(10));
+        assertThat(data.getAsString("title"), is("product"));
+        assertThat(data.getAsString("label"), is("sale"));
+        assertThat(dataContext.hasOwnProperties(), is(true));
+        assertThat(dataContext.getScope() == scope, is(true));
+    }
+
+    @Test
+    public void scope_reused() throws Exception {
+        Map<String, Value> scope = new LinkedHashMap<>();
+        scope.put("item", Binding.valueOf("@{product}", null, null));
+        scope.put("price", Binding.valueOf("@{item.price}", null, null));
+        scope.put("title", Binding.valueOf("@{product.title}", null, null));
+
+        DataContext dataContext = DataContext.create(null, product(10), 0, scope);
+        ObjectValue data = dataContext.getData();
+        ObjectValue next = product(20);
+        next.getAsObject("product").add("title", data.get("title"));
+        dataContext.update(null, next);
+
+        assertThat(dataContext.getData() == data, is(true));
+        assertThat(data.getAsInteger("price"), is(20));
+        assertThat(data.get("item") == next.get("product"), is(true));
+        assertThat(data.getAsString("title"), is("product"));
+
+        dataContext.setData(product(30));
+        dataContext.update(null, product(40));
+
+        assertThat(dataContext.getData() == data, is(true));
+        assertThat(data.getAsInteger("price"), is(40));
+    }
+
+    @Test
+    public void scope_forward_reference() throws Exception {
+        Map<String, Value> scope = new LinkedHashMap<>();
+        scope.put("price", Binding.valueOf("@{item.price}", null, null));
+        scope.put("item", Binding.valueOf("@{product}", null, null));
+
+        ObjectValue in = product(10);
+        ObjectValue item = new ObjectValue();
+        item.addProperty("price", 5);
+        in.add("item", item);
+
+        DataContext dataContext = DataContext.create(null, in, 0, scope);
+        ObjectValue data = dataContext.getData();
+        assertThat(data.getAsInteger("price"), is(5));
+
+        dataContext.update(null, in);
+        assertThat(dataContext.getData() == data, is(false));
+        assertThat(dataContext.getData().getAsInteger("price"), is(5));
+    }
+
+    @Test
+    public void claim() throws Exception {
+        DataContext dataContext = DataContext.create(null, product(10), 0);
+
+        assertThat(dataContext.claim(), is(true));
+        assertThat(dataContext.claim(), is(false));
+
+        DataContext copy = dataContext.copy();
+        assertThat(copy.getData() == dataContext.getData(), is(true));
+        assertThat(copy.claim(), is(true));
+    }
+}
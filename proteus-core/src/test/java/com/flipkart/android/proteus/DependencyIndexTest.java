@@ -0,0 +1,135 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus;
+
+import android.content.Context;
+
+import com.flipkart.android.proteus.value.Binding;
+import com.flipkart.android.proteus.value.NestedBinding;
+import com.flipkart.android.proteus.value.ObjectValue;
+import com.flipkart.android.proteus.value.Primitive;
+import com.flipkart.android.proteus.value.Value;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * DependencyIndexTest
+ */
+public class DependencyIndexTest {
+
+    private static List<String> collect(DependencyIndex<String> index, String... changed) {
+        List<String> out = new ArrayList<>();
+        index.collect(DependencyIndex.segments(Arrays.asList(changed)), out);
+        Collections.sort(out);
+        return out;
+    }
+
+    @Test
+    public void segments() throws Exception {
+        assertThat(DependencyIndex.segments("a.b[0][1].c"), is(new String[]{"a", "b", "0", "1", "c"}));
+        assertThat(DependencyIndex.segments("a[$index].b"), is(new String[]{"a", "*", "b"}));
+    }
+
+    @Test
+    public void prefix_in_either_direction() throws Exception {
+        DependencyIndex<String> index = new DependencyIndex<>();
+        index.add(Binding.DataBinding.valueOf("cart"), "cart");
+        index.add(Binding.DataBinding.valueOf("cart.count"), "count");
+        index.add(Binding.DataBinding.valueOf("cart.total.value"), "total");
+        index.add(Binding.DataBinding.valueOf("user.name"), "name");
+
+        assertThat(collect(index, "cart.count"), is(Arrays.asList("cart", "count")));
+        assertThat(collect(index, "cart"), is(Arrays.asList("cart", "count", "total")));
+        assertThat(collect(index, "user.name.first"), is(Collections.singletonList("name")));
+        assertThat(collect(index, "user.age"), is(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void array_references_match_any_index() throws Exception {
+        DependencyIndex<String> index = new DependencyIndex<>();
+        index.add(Binding.DataBinding.valueOf("items[$index].price"), "price");
+        index.add(Binding.DataBinding.valueOf("items[2].name"), "name");
+        index.add(Binding.DataBinding.valueOf("$index"), "index");
+
+        assertThat(collect(index, "items[3].price"), is(Collections.singletonList("price")));
+        assertThat(collect(index, "items[2]"), is(Arrays.asList("name", "price")));
+        assertThat(collect(index, "items[3].name"), is(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void nested_binding_dependencies() throws Exception {
+        ObjectValue config = new ObjectValue();
+        config.add("collection", Binding.DataBinding.valueOf("products"));
+        config.add("title", Binding.DataBinding.valueOf("header.title"));
+
+        DependencyIndex<String> index = new DependencyIndex<>();
+        assertThat(index.add(NestedBinding.valueOf(config), "children"), is(true));
+
+        assertThat(index.isAffected(DependencyIndex.segments(Collections.singletonList("products[0].name"))), is(true));
+        assertThat(index.isAffected(DependencyIndex.segments(Collections.singletonList("header.subtitle"))), is(false));
+    }
+
+    @Test
+    public void custom_binding_is_always_affected() throws Exception {
+        DependencyIndex<String> index = new DependencyIndex<>();
+        index.add(new Binding() {
+            @Override
+            public Value evaluate(Context context, Value data, int index) {
+                return data;
+            }
+
+            @Override
+            public String toString() {
+                return "custom";
+            }
+        }, "custom");
+
+        assertThat(collect(index, "anything.at.all"), is(Collections.singletonList("custom")));
+    }
+
+    @Test
+    public void custom_function_is_always_affected() throws Exception {
+        Function custom = new Function() {
+            @Override
+            public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
+                return data.getAsObject().get("user");
+            }
+
+            @Override
+            public String getName() {
+                return "user";
+            }
+        };
+        DependencyIndex<String> index = new DependencyIndex<>();
+        index.add(new Binding.FunctionBinding(Function.ADD, new Value[]{Binding.DataBinding.valueOf("cart.count"), new Primitive(1)}), "add");
+        index.add(new Binding.FunctionBinding(custom, new Value[]{Binding.DataBinding.valueOf("cart.count")}), "custom");
+
+        assertThat(collect(index, "cart.count"), is(Arrays.asList("add", "custom")));
+        assertThat(collect(index, "user.name"), is(Collections.singletonList("custom")));
+    }
+}
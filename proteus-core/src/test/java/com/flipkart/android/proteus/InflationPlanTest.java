@@ -0,0 +1,165 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus;
+
+import android.widget.TextView;
+
+import com.flipkart.android.proteus.parser.custom.TextViewParser;
+import com.flipkart.android.proteus.value.Binding;
+import com.flipkart.android.proteus.value.Layout;
+import com.flipkart.android.proteus.value.Primitive;
+import com.flipkart.android.proteus.value.Value;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/**
+ * InflationPlanTest
+ */
+public class InflationPlanTest {
+
+    private Proteus proteus;
+    private ProteusContext context;
+    private Map<String, ViewTypeParser> parsers;
+
+    @Before
+    public void before() {
+        proteus = new ProteusBuilder().build();
+        context = proteus.createContext(null);
+        parsers = context.getProteusResources().getParsers();
+    }
+
+    private Layout layout() {
+        List<Layout.Attribute> attributes = new ArrayList<>();
+        attributes.add(new Layout.Attribute(proteus.getAttributeId("visibility", "TextView").id, new Primitive("gone")));
+        attributes.add(new Layout.Attribute(proteus.getAttributeId("text", "TextView").id, Binding.valueOf("@{user.name}", null, null)));
+        return new Layout("TextView", attributes, null, null);
+    }
+
+    @Test
+    public void plan() throws Exception {
+        Layout layout = layout();
+        InflationPlan plan = layout.getPlan(context);
+
+        assertThat(plan.parser == parsers.get("TextView"), is(true));
+        assertThat(plan.size(), is(2));
+        assertThat(plan.processors[0] == proteus.getAttributeId("visibility", "TextView").processor, is(true));
+        assertThat(plan.processors[1] == proteus.getAttributeId("text", "TextView").processor, is(true));
+        assertThat(plan.processors[0] == parsers.get("View").getAttributeProcessor(plan.ids[0]), is(true));
+        assertThat(plan.boundAttributes.size(), is(1));
+        assertThat(plan.boundAttributes.get(0).attributeId, is(plan.ids[1]));
+        assertThat(plan.dependencies.isEmpty(), is(false));
+
+        assertThat(layout.getPlan(context) == plan, is(true));
+        assertThat(new Layout("Unknown", null, null, null).getPlan(context).parser, nullValue());
+    }
+
+    @Test
+    public void overridden_handle_attribute() throws Exception {
+        //noinspection unchecked
+        TextViewParser<TextView> parser = new TextViewParser<TextView>() {
+            @Override
+            public boolean handleAttribute(TextView view, int attributeId, Value value) {
+                return super.handleAttribute(view, attributeId, value);
+            }
+        };
+        //noinspection unchecked
+        parser.prepare(parsers.get("View"), null);
+        Map<String, ViewTypeParser> custom = new HashMap<>(parsers);
+        custom.put("TextView", parser);
+
+        InflationPlan plan = InflationPlan.compile(layout(), custom);
+
+        assertThat(plan.isCompiledFor(custom), is(true));
+        assertThat(plan.isCompiledFor(parsers), is(false));
+        assertThat(plan.processors[0], nullValue());
+        assertThat(plan.processors[1], nullValue());
+        assertThat(plan.boundAttributes.size(), is(1));
+    }
+
+    @Test
+    public void flattened_dispatch() throws Exception {
+        ViewTypeParser parser = parsers.get("TextView");
+
+        assertThat(parser.getAttributeId("visibility"), is(parsers.get("View").getAttributeId("visibility")));
+        assertThat(parser.getAttributeProcessor(parser.getAttributeId("visibility")) == proteus.getAttributeId("visibility", "TextView").processor, is(true));
+        assertThat(parser.getAttributeProcessor(parser.getAttributeId("text")) == proteus.getAttributeId("text", "TextView").processor, is(true));
+        assertThat(parser.getAttributeId("unknown"), is(-1));
+        assertThat(parser.getAttributeProcessor(-1), nullValue());
+        assertThat(parser.getAttributeProcessor(Integer.MAX_VALUE), nullValue());
+    }
+
+    @Test
+    public void merge_keeps_data() throws Exception {
+        Map<String, Value> data = new HashMap<>();
+        data.put("name", Binding.valueOf("@{user.name}", null, null));
+        Layout layout = new Layout("TextView", null, data, null);
+        DataContext.Scope scope = layout.getScope();
+
+        Map<String, Value> included = new HashMap<>();
+        included.put("age", Binding.valueOf("@{user.age}", null, null));
+        Layout merged = layout.merge(new Layout("TextView", null, included, null));
+
+        assertThat(layout.data.size(), is(1));
+        assertThat(layout.getScope() == scope, is(true));
+        assertThat(merged.data.size(), is(2));
+        assertThat(merged.data.containsKey("name"), is(true));
+    }
+
+    @Test
+    public void inflater_overrides_handle_attribute() throws Exception {
+        assertThat(SimpleLayoutInflater.overridesHandleAttribute(SimpleLayoutInflater.class), is(false));
+        assertThat(SimpleLayoutInflater.overridesHandleAttribute(PlainInflater.class), is(false));
+        assertThat(SimpleLayoutInflater.overridesHandleAttribute(CustomInflater.class), is(true));
+        assertThat(SimpleLayoutInflater.overridesHandleAttribute(DerivedInflater.class), is(true));
+    }
+
+    private static class PlainInflater extends SimpleLayoutInflater {
+        PlainInflater(ProteusContext context, IdGenerator idGenerator) {
+            super(context, idGenerator);
+        }
+    }
+
+    private static class CustomInflater extends SimpleLayoutInflater {
+        CustomInflater(ProteusContext context, IdGenerator idGenerator) {
+            super(context, idGenerator);
+        }
+
+        @Override
+        protected boolean handleAttribute(ViewTypeParser parser, ProteusView view, int attribute, Value value) {
+            return super.handleAttribute(parser, view, attribute, value);
+        }
+    }
+
+    private static class DerivedInflater extends CustomInflater {
+        DerivedInflater(ProteusContext context, IdGenerator idGenerator) {
+            super(context, idGenerator);
+        }
+    }
+}
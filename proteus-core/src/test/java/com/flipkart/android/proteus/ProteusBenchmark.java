@@ -0,0 +1,48 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus;
+
+/**
+ * Times building {@link Proteus} with the default module, preparing every parser as the
+ * builder used to, against preparing only the five types a simple screen uses. It is not a
+ * unit test: run {@link #main(String[])} to print the numbers.
+ */
+public class ProteusBenchmark {
+
+    public static void main(String[] args) {
+        // the best of the runs, so that a collection during one of them does not skew it
+        long[] nanos = {Long.MAX_VALUE, Long.MAX_VALUE};
+        for (int run = 0; run < 50; run++) {
+            long start = System.nanoTime();
+            Proteus eager = new ProteusBuilder().build();
+            eager.prepare();
+            nanos[0] = Math.min(nanos[0], System.nanoTime() - start);
+
+            start = System.nanoTime();
+            Proteus lazy = new ProteusBuilder().build();
+            for (String type : new String[]{"LinearLayout", "TextView", "ImageView", "Button", "ScrollView"}) {
+                lazy.prepare(type);
+            }
+            nanos[1] = Math.min(nanos[1], System.nanoTime() - start);
+        }
+        System.out.println(String.format("Proteus: build with all parsers prepared %d us, with 5 types prepared %d us",
+                nanos[0] / 1000, nanos[1] / 1000));
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.flipkart.android.proteus.processor.AttributeProcessor;
+import com.flipkart.android.proteus.value.Layout;
+import com.flipkart.android.proteus.value.ObjectValue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * ProteusTest
+ */
+public class ProteusTest {
+
+    private static final String[] TYPES = {"View", "ViewGroup", "LinearLayout", "TextView", "Button", "ImageView", "ScrollView"};
+
+    private static final String[] ATTRIBUTES = {"visibility", "layout_width", "orientation", "text", "src", "gravity"};
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void lazy() throws Exception {
+        ProteusBuilder builder = new ProteusBuilder();
+        Proteus proteus = builder.build();
+
+        assertThat(proteus.has("TextView"), is(true));
+        assertThat(builder.get("View").getAttributeSet(), nullValue());
+        assertThat(builder.get("TextView").getAttributeSet(), nullValue());
+
+        assertThat(proteus.getAttributeId("text", "TextView"), notNullValue());
+        assertThat(builder.get("View").getAttributeSet(), notNullValue());
+        assertThat(builder.get("TextView").getAttributeSet(), notNullValue());
+        assertThat(builder.get("ImageView").getAttributeSet(), nullValue());
+
+        ProteusContext context = proteus.createContext(null);
+        assertThat(context.getParser("ImageView") == builder.get("ImageView"), is(true));
+        assertThat(builder.get("ImageView").getAttributeSet(), notNullValue());
+        assertThat(context.getParser("Unknown"), nullValue());
+        assertThat(proteus.prepare("Unknown"), is(false));
+    }
+
+    @Test
+    public void stable_ids() throws Exception {
+        Proteus eager = new ProteusBuilder().build();
+        eager.prepare();
+        Proteus lazy = new ProteusBuilder().build();
+        for (int i = TYPES.length - 1; i >= 0; i--) {
+            lazy.prepare(TYPES[i]);
+        }
+
+        for (String type : TYPES) {
+            for (String name : ATTRIBUTES) {
+                ViewTypeParser.AttributeSet.Attribute expected = eager.getAttributeId(name, type);
+                ViewTypeParser.AttributeSet.Attribute actual = lazy.getAttributeId(name, type);
+                assertThat(null != actual ? actual.id : -1, is(null != expected ? expected.id : -1));
+            }
+        }
+    }
+
+    @Test
+    public void prefetch() throws Exception {
+        ProteusBuilder builder = new ProteusBuilder();
+        Proteus proteus = builder.build();
+        proteus.prefetch(DIRECT);
+
+        for (String type : TYPES) {
+            assertThat(builder.get(type).getAttributeSet(), notNullValue());
+        }
+    }
+
+    @Test
+    public void reregistered_type() throws Exception {
+        ProteusBuilder builder = new ProteusBuilder();
+        builder.register(new CustomParser("Label", "View", "label"));
+        builder.register(new CustomParser("Base", "View", "base"));
+        // keeps its slot in front of its new parent
+        builder.register(new CustomParser("Label", "Base", "label"));
+        Proteus proteus = builder.build();
+
+        assertThat(proteus.getAttributeId("base", "Label"), notNullValue());
+        assertThat(proteus.getAttributeId("visibility", "Label"), notNullValue());
+        assertThat(proteus.getAttributeId("label", "Label").id, is(proteus.getAttributeId("base", "Base").id + 1));
+    }
+
+    @Test
+    public void prepare_hook() throws Exception {
+        final List<String> prepared = new ArrayList<>();
+        ProteusBuilder builder = new ProteusBuilder() {
+            @Override
+            protected Proteus.Type prepare(ViewTypeParser parser) {
+                prepared.add(parser.getType());
+                return super.prepare(parser);
+            }
+        };
+        Proteus proteus = builder.build();
+
+        assertThat(prepared.size(), is(18));
+        assertThat(prepared.indexOf("View") < prepared.indexOf("TextView"), is(true));
+        assertThat(proteus.getAttributeId("visibility", "TextView"), notNullValue());
+    }
+
+    private static class CustomParser extends ViewTypeParser<View> {
+
+        @NonNull
+        private final String type;
+
+        @NonNull
+        private final String parentType;
+
+        @NonNull
+        private final String attribute;
+
+        CustomParser(@NonNull String type, @NonNull String parentType, @NonNull String attribute) {
+            this.type = type;
+            this.parentType = parentType;
+            this.attribute = attribute;
+        }
+
+        @NonNull
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Nullable
+        @Override
+        public String getParentType() {
+            return parentType;
+        }
+
+        @NonNull
+        @Override
+        public ProteusView createView(@NonNull ProteusContext context, @NonNull Layout layout, @NonNull ObjectValue data,
+                                      @Nullable ViewGroup parent, int dataIndex) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void addAttributeProcessors() {
+            //noinspection unchecked
+            addAttributeProcessor(attribute, mock(AttributeProcessor.class));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus;
+
+import android.content.ComponentCallbacks2;
+
+import com.flipkart.android.proteus.value.Layout;
+import com.flipkart.android.proteus.value.ObjectValue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ProteusViewPoolTest
+ */
+public class ProteusViewPoolTest {
+
+    private final Layout layout = new Layout("View", null, null, null);
+    private final ObjectValue data = new ObjectValue();
+
+    private ProteusContext context;
+    private ProteusLayoutInflater inflater;
+    private ProteusViewPool pool;
+
+    @Before
+    public void before() {
+        context = mock(ProteusContext.class);
+        inflater = mock(ProteusLayoutInflater.class);
+        when(context.getInflater()).thenReturn(inflater);
+        when(context.getLayout("page")).thenReturn(layout);
+        pool = new ProteusViewPool(context, 2);
+    }
+
+    private ProteusView view(Layout layout, int index) {
+        ProteusView view = mock(ProteusView.class);
+        ProteusView.Manager manager = mock(ProteusView.Manager.class);
+        DataContext dataContext = DataContext.create(null, null, index);
+        when(view.getViewManager()).thenReturn(manager);
+        when(manager.getLayout()).thenReturn(layout);
+        when(manager.getDataContext()).thenReturn(dataContext);
+        return view;
+    }
+
+    @Test
+    public void reuse() throws Exception {
+        ProteusView view = view(layout, -1);
+        when(inflater.inflate(layout, data, null, -1)).thenReturn(view);
+
+        assertThat(pool.inflate("page", data) == view, is(true));
+        assertThat(pool.keep(view), is(true));
+        assertThat(pool.size(), is(1));
+
+        ObjectValue next = new ObjectValue();
+        assertThat(pool.inflate(layout, next) == view, is(true));
+        verify(view.getViewManager()).update(next);
+        assertThat(pool.size(), is(0));
+        assertThat(pool.getHitCount(), is(1L));
+        assertThat(pool.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void keyed_by_layout_and_index() throws Exception {
+        pool.keep(view(layout, 0));
+        pool.keep(view(new Layout("View", null, null, null), -1));
+
+        assertThat(pool.acquire(layout, -1) == null, is(true));
+        assertThat(pool.acquire(layout, 0) != null, is(true));
+    }
+
+    @Test
+    public void capacity_and_trim() throws Exception {
+        ProteusView first = view(layout, -1);
+        pool.keep(first);
+        pool.keep(view(layout, -1));
+        pool.keep(view(layout, -1));
+        assertThat(pool.size(), is(2));
+        pool.keep(pool.acquire(layout, -1));
+        assertThat(pool.size(), is(2));
+
+        pool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+        assertThat(pool.size(), is(1));
+        pool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+        assertThat(pool.size(), is(0));
+
+        pool.setCapacity(0);
+        assertThat(pool.keep(first), is(false));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.toolbox;
+
+import com.flipkart.android.proteus.Function;
+import com.flipkart.android.proteus.FunctionManager;
+import com.flipkart.android.proteus.value.Array;
+import com.flipkart.android.proteus.value.Binding;
+import com.flipkart.android.proteus.value.ObjectValue;
+import com.flipkart.android.proteus.value.Primitive;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares formatting the prices of a 1,000 row list with a compiled {@link FormatTemplate}
+ * against {@link String#format}. It is not a unit test: run {@link #main(String[])} to print
+ * the numbers.
+ */
+public class FormatTemplateBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        FunctionManager manager = manager();
+        Binding binding = Binding.valueOf("@{fn:format('Rs. %s (was Rs. %s)',@{products[$index].price},@{products[$index].mrp})}", null, manager);
+        Binding price = Binding.DataBinding.valueOf("products[$index].price");
+        Binding mrp = Binding.DataBinding.valueOf("products[$index].mrp");
+        Primitive template = new Primitive("Rs. %s (was Rs. %s)");
+
+        Array products = new Array();
+        for (int i = 0; i < 1000; i++) {
+            ObjectValue product = new ObjectValue();
+            product.addProperty("price", 100 + i);
+            product.addProperty("mrp", 200 + i);
+            products.add(product);
+        }
+        ObjectValue data = new ObjectValue();
+        data.add("products", products);
+
+        int passes = 50;
+        long legacy = 0;
+        long compiled = 0;
+        for (int pass = 0; pass < passes * 2; pass++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < products.size(); i++) {
+                Function.FORMAT.call(null, data, i, template, price.evaluate(null, data, i), mrp.evaluate(null, data, i));
+            }
+            long middle = System.nanoTime();
+            for (int i = 0; i < products.size(); i++) {
+                binding.evaluate(null, data, i);
+            }
+            long end = System.nanoTime();
+            // the first half of the passes is the warm up
+            if (pass >= passes) {
+                legacy += middle - start;
+                compiled += end - middle;
+            }
+        }
+
+        System.out.println(String.format("FormatTemplate: 1000 rows, String.format %d us/list, compiled %d us/list",
+                legacy / passes / 1000, compiled / passes / 1000));
+    }
+
+    private static FunctionManager manager() {
+        Map<String, Function> functions = new HashMap<>();
+        functions.put(Function.FORMAT.getName(), Function.FORMAT);
+        return new FunctionManager(functions);
+    }
+}
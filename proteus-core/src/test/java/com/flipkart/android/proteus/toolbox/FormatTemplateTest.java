@@ -0,0 +1,105 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.toolbox;
+
+import com.flipkart.android.proteus.Function;
+import com.flipkart.android.proteus.FunctionManager;
+import com.flipkart.android.proteus.value.Binding;
+import com.flipkart.android.proteus.value.ObjectValue;
+import com.flipkart.android.proteus.value.Primitive;
+import com.flipkart.android.proteus.value.Value;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.MissingFormatArgumentException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/**
+ * FormatTemplateTest
+ */
+public class FormatTemplateTest {
+
+    private static final String[] TEMPLATES = new String[]{
+            "%s",
+            "%s off",
+            "Rs. %s (was %s)",
+            "%2$s, %1$s and %s",
+            "100%% %s%n",
+            "no arguments",
+            "",
+    };
+
+    private static Value[] arguments(String... values) {
+        Value[] arguments = new Value[values.length + 1];
+        arguments[0] = new Primitive("template");
+        for (int i = 0; i < values.length; i++) {
+            arguments[i + 1] = new Primitive(values[i]);
+        }
+        return arguments;
+    }
+
+    @Test
+    public void same_as_string_format() throws Exception {
+        Value[] arguments = arguments("a", "b", "c");
+        for (String template : TEMPLATES) {
+            FormatTemplate compiled = FormatTemplate.compile(template);
+            assertThat(template, compiled.format(arguments, 1), is(String.format(template, "a", "b", "c")));
+        }
+    }
+
+    @Test
+    public void unsupported() throws Exception {
+        assertThat(FormatTemplate.compile("%d"), nullValue());
+        assertThat(FormatTemplate.compile("%.2s"), nullValue());
+        assertThat(FormatTemplate.compile("%-5s"), nullValue());
+        assertThat(FormatTemplate.compile("%1$d"), nullValue());
+        assertThat(FormatTemplate.compile("trailing %"), nullValue());
+    }
+
+    @Test(expected = MissingFormatArgumentException.class)
+    public void missing_argument() throws Exception {
+        FormatTemplate.compile("%s and %s").format(arguments("a"), 1);
+    }
+
+    @Test
+    public void specialized_format_binding() throws Exception {
+        FunctionManager manager = manager();
+        Binding compiled = Binding.valueOf("@{fn:format('%s off',@{a})}", null, manager);
+        Binding fallback = Binding.valueOf("@{fn:format('%.1s off',@{a})}", null, manager);
+        Binding missing = Binding.valueOf("@{fn:format('%s off %s',@{a})}", null, manager);
+        ObjectValue data = new ObjectValue();
+        data.addProperty("a", "50");
+
+        assertThat(compiled.evaluate(null, data, 0).getAsString(), is("50 off"));
+        assertThat(fallback.evaluate(null, data, 0).getAsString(), is("5 off"));
+        assertThat(missing.evaluate(null, data, 0).isNull(), is(true));
+    }
+
+    private static FunctionManager manager() {
+        Map<String, Function> functions = new HashMap<>();
+        functions.put(Function.FORMAT.getName(), Function.FORMAT);
+        return new FunctionManager(functions);
+    }
+}
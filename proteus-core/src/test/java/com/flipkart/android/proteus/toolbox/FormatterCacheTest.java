@@ -0,0 +1,104 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.toolbox;
+
+import android.support.annotation.NonNull;
+
+import com.flipkart.android.proteus.Function;
+import com.flipkart.android.proteus.value.Primitive;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * FormatterCacheTest
+ */
+public class FormatterCacheTest {
+
+    private static FormatterCache<SimpleDateFormat> cache() {
+        return new FormatterCache<SimpleDateFormat>(2) {
+            @NonNull
+            @Override
+            protected SimpleDateFormat create(@NonNull String pattern, @NonNull Locale locale) {
+                return new SimpleDateFormat(pattern, locale);
+            }
+        };
+    }
+
+    @Test
+    public void same_formatter_per_thread() throws Exception {
+        final FormatterCache<SimpleDateFormat> cache = cache();
+        SimpleDateFormat formatter = cache.get("yyyy");
+
+        assertThat(cache.get("yyyy") == formatter, is(true));
+        assertThat(cache.get("MM") == formatter, is(false));
+
+        final AtomicReference<SimpleDateFormat> other = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                other.set(cache.get("yyyy"));
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertThat(other.get() == formatter, is(false));
+    }
+
+    @Test
+    public void evicts_least_recently_used() throws Exception {
+        FormatterCache<SimpleDateFormat> cache = cache();
+        SimpleDateFormat yyyy = cache.get("yyyy");
+        SimpleDateFormat mm = cache.get("MM");
+
+        cache.get("yyyy");
+        cache.get("dd");
+
+        assertThat(cache.get("yyyy") == yyyy, is(true));
+        assertThat(cache.get("MM") == mm, is(false));
+    }
+
+    @Test
+    public void keyed_by_locale() throws Exception {
+        FormatterCache<SimpleDateFormat> cache = cache();
+        Locale locale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.US);
+            SimpleDateFormat us = cache.get("MMMM");
+            Locale.setDefault(Locale.FRANCE);
+            SimpleDateFormat france = cache.get("MMMM");
+
+            assertThat(us == france, is(false));
+            assertThat(Function.DATE.call(null, null, 0, new Primitive("2017-01-01 00:00:00"), new Primitive("MMMM")).getAsString(), is("janvier"));
+            Locale.setDefault(Locale.US);
+            assertThat(Function.DATE.call(null, null, 0, new Primitive("2017-01-01 00:00:00"), new Primitive("MMMM")).getAsString(), is("January"));
+            assertThat(Function.NUMBER.call(null, null, 0, new Primitive("1234567.891")).getAsString(), is("1,234,567.89"));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+}
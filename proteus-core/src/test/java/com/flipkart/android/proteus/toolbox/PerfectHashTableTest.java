@@ -0,0 +1,74 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.toolbox;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/**
+ * PerfectHashTableTest
+ */
+public class PerfectHashTableTest {
+
+    @Test
+    public void get() throws Exception {
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            map.put("attribute" + i, i);
+        }
+        PerfectHashTable<Integer> table = new PerfectHashTable<>(map);
+
+        assertThat(table.size(), is(500));
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            assertThat(table.get(new String(entry.getKey())), is(entry.getValue()));
+        }
+        assertThat(table.get("attribute500"), nullValue());
+        assertThat(table.get(""), nullValue());
+    }
+
+    @Test
+    public void empty() throws Exception {
+        PerfectHashTable<Integer> table = new PerfectHashTable<>(new HashMap<String, Integer>());
+
+        assertThat(table.size(), is(0));
+        assertThat(table.get("text"), nullValue());
+    }
+
+    @Test
+    public void colliding_hash_codes() throws Exception {
+        Map<String, Integer> map = new HashMap<>();
+        map.put("Aa", 1);
+        map.put("BB", 2);
+        map.put("text", 3);
+        PerfectHashTable<Integer> table = new PerfectHashTable<>(map);
+
+        assertThat(table.get("Aa"), is(1));
+        assertThat(table.get("BB"), is(2));
+        assertThat(table.get("text"), is(3));
+        assertThat(table.get("Ab"), nullValue());
+        assertThat(table.capacity(), is(3));
+    }
+}
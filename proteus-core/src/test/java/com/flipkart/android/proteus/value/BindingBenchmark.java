@@ -0,0 +1,142 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.value;
+
+import android.content.Context;
+import android.view.View;
+
+import com.flipkart.android.proteus.ProteusContext;
+import com.flipkart.android.proteus.processor.AttributeProcessor;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Measures the bytes allocated per frame by evaluating a set of function bindings, against
+ * the previous evaluation path which created an {@link AttributeProcessor} per argument and
+ * a new arguments array per call. It is not a unit test: run {@link #main(String[])} to print
+ * the numbers.
+ */
+public class BindingBenchmark {
+
+    public static void main(String[] args) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            System.out.println("FunctionBinding: allocation counters are not supported by this VM");
+            return;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        ProteusContext context = BindingTest.context();
+        String[] expressions = new String[]{
+                "@{fn:gt(@{a.b.c},5)}",
+                "@{fn:add(@{fn:mul(@{a.b.c},2)},1)}",
+                "@{fn:ternary(@{a.b.d},@{e[0]},@{e[1]})}",
+                "@{fn:and(@{a.b.d},@{fn:lt(@{a.b.c},20)})}",
+        };
+        Binding[] bindings = new Binding[expressions.length];
+        for (int i = 0; i < expressions.length; i++) {
+            bindings[i] = Binding.valueOf(expressions[i], context, context.getFunctionManager());
+        }
+        ObjectValue data = BindingTest.data();
+        int frames = 2000;
+        int rows = 20;
+
+        // warm up
+        allocated(threads, context, bindings, data, frames, rows, true);
+        allocated(threads, context, bindings, data, frames, rows, false);
+
+        long legacy = allocated(threads, context, bindings, data, frames, rows, true);
+        long current = allocated(threads, context, bindings, data, frames, rows, false);
+
+        System.out.println(String.format("FunctionBinding: %d bindings x %d rows per frame, legacy %d bytes/frame, current %d bytes/frame",
+                bindings.length, rows, legacy / frames, current / frames));
+    }
+
+    private static long allocated(com.sun.management.ThreadMXBean threads, ProteusContext context, Binding[] bindings,
+                                  ObjectValue data, int frames, int rows, boolean legacy) {
+        long thread = Thread.currentThread().getId();
+        long start = threads.getThreadAllocatedBytes(thread);
+        for (int frame = 0; frame < frames; frame++) {
+            for (int row = 0; row < rows; row++) {
+                for (Binding binding : bindings) {
+                    if (legacy) {
+                        legacyEvaluate(context, binding, data, row);
+                    } else {
+                        binding.evaluate(context, data, row);
+                    }
+                }
+            }
+        }
+        return threads.getThreadAllocatedBytes(thread) - start;
+    }
+
+    /**
+     * The evaluation path which {@link Binding.FunctionBinding#evaluate} replaces.
+     */
+    private static Value legacyEvaluate(final Context context, Value input, final Value data, final int index) {
+        final Value[] output = new Value[1];
+        AttributeProcessor processor = new AttributeProcessor<View>() {
+
+            @Override
+            public void handleBinding(View view, Binding binding) {
+                if (binding instanceof Binding.FunctionBinding) {
+                    Binding.FunctionBinding function = (Binding.FunctionBinding) binding;
+                    List<Value> arguments = new ArrayList<>();
+                    Iterator<Value> iterator = function.getTokens();
+                    while (iterator.hasNext()) {
+                        arguments.add(legacyEvaluate(context, iterator.next(), data, index));
+                    }
+                    try {
+                        output[0] = function.function.call(context, data, index, arguments.toArray(new Value[arguments.size()]));
+                    } catch (Exception e) {
+                        output[0] = Null.INSTANCE;
+                    }
+                } else {
+                    output[0] = binding.evaluate(context, data, index);
+                }
+            }
+
+            @Override
+            public void handleValue(View view, Value value) {
+                output[0] = value;
+            }
+
+            @Override
+            public void handleResource(View view, Resource resource) {
+                output[0] = new Primitive(resource.getString(context));
+            }
+
+            @Override
+            public void handleAttributeResource(View view, AttributeResource attribute) {
+                output[0] = new Primitive(attribute.apply(context).getString(0));
+            }
+
+            @Override
+            public void handleStyleResource(View view, StyleResource style) {
+                output[0] = new Primitive(style.apply(context).getString(0));
+            }
+        };
+        //noinspection unchecked
+        processor.process(null, input);
+        return output[0];
+    }
+}
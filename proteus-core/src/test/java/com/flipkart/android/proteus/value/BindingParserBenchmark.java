@@ -0,0 +1,72 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.value;
+
+import com.flipkart.android.proteus.Function;
+import com.flipkart.android.proteus.FunctionManager;
+
+import java.util.Map;
+
+/**
+ * Compares the throughput of the {@link BindingParser} scanner with the regular expression
+ * based parser it replaces, and with parsing an expression which is already interned. It is
+ * not a unit test: run {@link #main(String[])} to print the numbers.
+ */
+public class BindingParserBenchmark {
+
+    private static final int MODE_PATTERN = 0;
+    private static final int MODE_SCANNER = 1;
+    private static final int MODE_INTERNED = 2;
+
+    public static void main(String[] args) {
+        Map<String, Function> functions = BindingParserTest.functions();
+        int iterations = 20000;
+
+        // warm up
+        run(functions, iterations, MODE_PATTERN);
+        run(functions, iterations, MODE_SCANNER);
+        run(functions, iterations, MODE_INTERNED);
+
+        long pattern = run(functions, iterations, MODE_PATTERN);
+        long scanner = run(functions, iterations, MODE_SCANNER);
+        long interned = run(functions, iterations, MODE_INTERNED);
+
+        int operations = iterations * BindingParserTest.EXPRESSIONS.length;
+        System.out.println(String.format("BindingParser: pattern %d ns/op, scanner %d ns/op, interned %d ns/op",
+                pattern / operations, scanner / operations, interned / operations));
+    }
+
+    private static long run(Map<String, Function> functions, int iterations, int mode) {
+        FunctionManager shared = new FunctionManager(functions);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            // a new manager misses the intern table, so every function binding is parsed again
+            FunctionManager manager = mode == MODE_INTERNED ? shared : new FunctionManager(functions);
+            for (String expression : BindingParserTest.EXPRESSIONS) {
+                if (mode == MODE_PATTERN) {
+                    BindingParserTest.parseWithPattern(expression, manager);
+                } else {
+                    BindingParser.parse(expression, null, manager);
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.value;
+
+import com.flipkart.android.proteus.Function;
+import com.flipkart.android.proteus.FunctionManager;
+import com.flipkart.android.proteus.processor.AttributeProcessor;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.regex.Matcher;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * BindingParserTest
+ */
+public class BindingParserTest {
+
+    static final String[] EXPRESSIONS = new String[]{
+            "@{a.b.c}",
+            "@{a.b[0].c}",
+            "@{e[$index]}",
+            "@{fn:add(1,2)}",
+            "@{fn:add(1, @{a.b.c})}",
+            "@{fn:format('%s, %s off','50')}",
+            "@{fn:format('it''s','a')}",
+            "@{fn:ternary(@{a.b.d},'yes','no')}",
+            "@{fn:not(@{fn:isEmpty(@{a.b})})}",
+            "@{fn:noop()}",
+            "@{fn:add(1,2,)}",
+            "@{fn :add(1,2)}",
+            "@{fn:unknown('x')}",
+    };
+
+    private static FunctionManager manager() {
+        return new FunctionManager(functions());
+    }
+
+    static Map<String, Function> functions() {
+        Map<String, Function> functions = new HashMap<>();
+        functions.put(Function.ADD.getName(), Function.ADD);
+        functions.put(Function.FORMAT.getName(), Function.FORMAT);
+        functions.put(Function.TERNARY.getName(), Function.TERNARY);
+        functions.put(Function.NOT.getName(), Function.NOT);
+        functions.put(Function.IS_EMPTY.getName(), Function.IS_EMPTY);
+        functions.put(Function.GREATER_THAN.getName(), Function.GREATER_THAN);
+        return functions;
+    }
+
+    /**
+     * The regular expression based parser which {@link BindingParser} replaces.
+     */
+    static Binding parseWithPattern(String value, FunctionManager manager) {
+        Matcher matcher = Binding.BINDING_PATTERN.matcher(value);
+        if (!matcher.find()) {
+            throw new IllegalArgumentException(value + " is not a binding");
+        }
+        if (matcher.group(3) != null) {
+            return Binding.DataBinding.valueOf(matcher.group(3));
+        }
+        String[] tokens = Binding.FUNCTION_ARGS_DELIMITER.split(matcher.group(2));
+        Value[] arguments = new Value[tokens.length];
+        String token;
+        Value resolved;
+        for (int i = 0; i < tokens.length; i++) {
+            token = tokens[i].trim();
+            if (!token.isEmpty() && token.charAt(0) == '\'') {
+                resolved = new Primitive(token.substring(1, token.length() - 1));
+            } else if (Binding.isBindingValue(token)) {
+                resolved = parseWithPattern(token, manager);
+            } else {
+                resolved = AttributeProcessor.staticPreCompile(new Primitive(token), null, manager);
+            }
+            arguments[i] = resolved != null ? resolved : new Primitive(token);
+        }
+        return new Binding.FunctionBinding(manager.get(matcher.group(1)), arguments);
+    }
+
+    @Test
+    public void same_as_pattern() throws Exception {
+        FunctionManager manager = manager();
+        for (String expression : EXPRESSIONS) {
+            Binding expected = parseWithPattern(expression, manager);
+            Binding actual = BindingParser.parse(expression, null, manager);
+            assertThat(expression, actual.getClass() == expected.getClass(), is(true));
+            assertThat(expression, actual.toString(), is(expected.toString()));
+        }
+    }
+
+    @Test
+    public void nested_function_with_arguments() throws Exception {
+        FunctionManager manager = manager();
+        Binding binding = BindingParser.parse("@{fn:ternary(@{fn:gt(@{a.b.c},5)},'a, b','c')}", null, manager);
+
+        Value value = binding.evaluate(null, BindingTest.data(), 0);
+
+        assertThat(value.getAsString(), is("a, b"));
+    }
+
+    @Test
+    public void escaped_quote() throws Exception {
+        FunctionManager manager = manager();
+        Binding binding = BindingParser.parse("@{fn:format('%s\\', b','a')}", null, manager);
+
+        assertThat(binding.evaluate(null, BindingTest.data(), 0).getAsString(), is("a\\', b"));
+    }
+
+    @Test
+    public void not_a_binding() throws Exception {
+        try {
+            BindingParser.parse("a.b.c", null, manager());
+            assertThat(false, is(true));
+        } catch (IllegalArgumentException e) {
+            assertThat(true, is(true));
+        }
+    }
+
+    @Test
+    public void interned() throws Exception {
+        FunctionManager manager = manager();
+        Binding binding = BindingParser.parse("@{fn:add(1,@{fn:add(2,@{a.b})})}", null, manager);
+
+        assertThat(BindingParser.parse("@{fn:add(1,@{fn:add(2,@{a.b})})}", null, manager) == binding, is(true));
+        assertThat(BindingParser.parse("@{fn:add( 1, @{fn:add(2 ,@{a.b})} )}", null, manager) == binding, is(true));
+        assertThat(BindingParser.parse("@{fn:add(2,@{a.b})}", null, manager) == getArgument(binding, 1), is(true));
+        assertThat(BindingParser.parse("@{fn:add(1,@{fn:add(2,@{a.b})})}", null, manager()) == binding, is(false));
+    }
+
+    private static Value getArgument(Binding binding, int position) {
+        Iterator<Value> arguments = ((Binding.FunctionBinding) binding).getTokens();
+        Value argument = arguments.next();
+        for (int i = 0; i < position; i++) {
+            argument = arguments.next();
+        }
+        return argument;
+    }
+
+    @Test
+    public void normalize() throws Exception {
+        assertThat(BindingParser.normalize("@{fn:add( 1 ,\t2 )}"), is("@{fn:add(1,2)}"));
+        assertThat(BindingParser.normalize("@{fn:format(' a, b ', c)}"), is("@{fn:format(' a, b ',c)}"));
+        assertThat(BindingParser.normalize("@{fn:add(1,2, )}"), is("@{fn:add(1,2, )}"));
+        String same = "@{fn:add(1,2)}";
+        assertThat(BindingParser.normalize(same) == same, is(true));
+    }
+
+    @Test
+    public void resource_arguments_not_interned() throws Exception {
+        FunctionManager manager = manager();
+        String expression = "@{fn:join(?attr/colorPrimary,@{a.b})}";
+        Binding binding = BindingParser.parse(expression, null, manager);
+
+        assertThat(BindingParser.parse(expression, null, manager) == binding, is(false));
+        assertThat(BindingParser.parse("@{fn:join(@{fn:join(?attr/colorPrimary,@{a.b})},'c')}", null, manager)
+                == BindingParser.parse("@{fn:join(@{fn:join(?attr/colorPrimary,@{a.b})},'c')}", null, manager), is(false));
+    }
+
+    @Test
+    public void nested_binding_not_shared() throws Exception {
+        ObjectValue a = new ObjectValue();
+        a.add("v", new Primitive(1));
+        ObjectValue b = new ObjectValue();
+        b.add("v", new Primitive(1.0));
+
+        // equal values which render differently keep their own bindings
+        assertThat(NestedBinding.valueOf(a).evaluate(null, new ObjectValue(), 0).getAsObject().getAsString("v"), is("1"));
+        assertThat(NestedBinding.valueOf(b).evaluate(null, new ObjectValue(), 0).getAsObject().getAsString("v"), is("1.0"));
+    }
+}
@@ -19,14 +19,23 @@
 
 package com.flipkart.android.proteus.value;
 
+import android.content.Context;
+import android.support.annotation.NonNull;
 import android.test.mock.MockContext;
 
+import com.flipkart.android.proteus.Function;
+import com.flipkart.android.proteus.FunctionManager;
 import com.flipkart.android.proteus.Proteus;
 import com.flipkart.android.proteus.ProteusBuilder;
+import com.flipkart.android.proteus.ProteusConstants;
 import com.flipkart.android.proteus.ProteusContext;
 
 import org.junit.Test;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 
@@ -118,6 +127,176 @@ public class BindingTest {
         assertThat(value.getAsString(), is("2.0"));
     }
 
+    @Test
+    public void fold_constant_function() throws Exception {
+        ProteusContext context = context();
+
+        Value add = Binding.compile("@{fn:add(2,3)}", context, context.getFunctionManager());
+        Value format = Binding.compile("@{fn:format('%s off','50')}", context, context.getFunctionManager());
+        Value ternary = Binding.compile("@{fn:ternary(@{fn:gt(2,1)},'yes','no')}", context, context.getFunctionManager());
+
+        assertThat(add.isPrimitive(), is(true));
+        assertThat(add.getAsString(), is("5.0"));
+        assertThat(format.getAsString(), is("50 off"));
+        assertThat(ternary.getAsString(), is("yes"));
+    }
+
+    @Test
+    public void fold_nested_constant_only() throws Exception {
+        ProteusContext context = context();
+
+        Value value = Binding.compile("@{fn:add(@{fn:mul(2,3)},@{a.b.c})}", context, context.getFunctionManager());
+
+        assertThat(value.isBinding(), is(true));
+        Iterator<Value> arguments = ((Binding.FunctionBinding) value).getTokens();
+        assertThat(arguments.next().isPrimitive(), is(true));
+        assertThat(arguments.next().isBinding(), is(true));
+        assertThat(value.getAsBinding().evaluate(context, data(), 0).getAsString(), is("16.0"));
+    }
+
+    @Test
+    public void fold_impure_function() throws Exception {
+        Function random = new Function() {
+            @NonNull
+            @Override
+            public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
+                return new Primitive(Math.random());
+            }
+
+            @Override
+            public String getName() {
+                return "random";
+            }
+        };
+        Map<String, Function> functions = new HashMap<>();
+        functions.put(random.getName(), random);
+
+        Value value = Binding.compile("@{fn:random(1)}", null, new FunctionManager(functions));
+
+        assertThat(value.isBinding(), is(true));
+    }
+
+    @Test
+    public void fold_locale_sensitive_function() throws Exception {
+        ProteusContext context = context();
+        // formatted with the default locale, which can change after the layout is parsed
+        assertThat(Binding.compile("@{fn:number('1000')}", context, context.getFunctionManager()).isBinding(), is(true));
+        assertThat(Binding.compile("@{fn:date('2017-01-01 10:00:00')}", context, context.getFunctionManager()).isBinding(), is(true));
+        assertThat(Binding.compile("@{fn:format('%S off','i')}", context, context.getFunctionManager()).isBinding(), is(true));
+        assertThat(Binding.compile("@{fn:format('%s off','i')}", context, context.getFunctionManager()).isBinding(), is(false));
+    }
+
+    @Test
+    public void evaluate_lazy_arguments() throws Exception {
+        final int[] calls = new int[1];
+        Function count = new Function() {
+            @NonNull
+            @Override
+            public Value call(Context context, Value data, int dataIndex, Value... arguments) throws Exception {
+                calls[0]++;
+                return new Primitive(calls[0]);
+            }
+
+            @Override
+            public String getName() {
+                return "count";
+            }
+        };
+        Map<String, Function> functions = new HashMap<>();
+        functions.put(count.getName(), count);
+        functions.put(Function.TERNARY.getName(), Function.TERNARY);
+        functions.put(Function.AND.getName(), Function.AND);
+        functions.put(Function.OR.getName(), Function.OR);
+        FunctionManager manager = new FunctionManager(functions);
+
+        Binding ternary = Binding.valueOf("@{fn:ternary(@{a.b.d},@{a.b.c},@{fn:count()})}", null, manager);
+        Binding and = Binding.valueOf("@{fn:and(@{f},@{fn:count()})}", null, manager);
+        Binding or = Binding.valueOf("@{fn:or(@{a.b.d},@{fn:count()})}", null, manager);
+        Binding forced = Binding.valueOf("@{fn:or(@{f},@{fn:count()})}", null, manager);
+
+        assertThat(ternary.evaluate(null, data(), 0).getAsInt(), is(10));
+        assertThat(and.evaluate(null, data(), 0).getAsBoolean(), is(false));
+        assertThat(or.evaluate(null, data(), 0).getAsBoolean(), is(true));
+        assertThat(calls[0], is(0));
+
+        assertThat(forced.evaluate(null, data(), 0).getAsBoolean(), is(true));
+        assertThat(calls[0], is(1));
+    }
+
+    @Test
+    public void evaluate_ternary_missing_argument() throws Exception {
+        ProteusContext context = context();
+        Binding binding = Binding.valueOf("@{fn:ternary(@{a.b.d},'yes')}", context, context.getFunctionManager());
+
+        assertThat(binding.evaluate(context, data(), 0).isNull(), is(true));
+    }
+
+    @Test
+    public void evaluate_nested_arithmetic() throws Exception {
+        ProteusContext context = context();
+        Binding binding = Binding.valueOf("@{fn:add(@{fn:mul(@{a.b.c},2)},@{fn:sub(5,1,1)},1)}", context, context.getFunctionManager());
+
+        Value value = binding.evaluate(null, data(), 0);
+
+        assertThat(value.getAsString(), is("24.0"));
+    }
+
+    @Test
+    public void evaluate_nested_binding() throws Exception {
+        ProteusContext context = context();
+        ObjectValue config = new ObjectValue();
+        Array items = new Array();
+        items.add(Binding.valueOf("@{e[0]}", context, context.getFunctionManager()));
+        items.add(new Primitive("beta"));
+        config.add("count", Binding.valueOf("@{fn:add(@{a.b.c},1)}", context, context.getFunctionManager()));
+        config.add("items", items);
+        config.add("f", Binding.valueOf("@{f}", context, context.getFunctionManager()));
+
+        Value value = NestedBinding.valueOf(config).evaluate(null, data(), 0);
+
+        assertThat(value.getAsObject().getAsDouble("count"), is(11.0));
+        assertThat(value.getAsObject().getAsArray("items").get(0).getAsString(), is("alpha"));
+        assertThat(value.getAsObject().getAsArray("items").get(1).getAsString(), is("beta"));
+        assertThat(value.getAsObject().get("f").isNull(), is(true));
+    }
+
+    @Test
+    public void evaluate_arithmetic_invalid() throws Exception {
+        ProteusContext context = context();
+        Binding add = Binding.valueOf("@{fn:add(@{fn:mul(@{a.b},2)},1)}", context, context.getFunctionManager());
+        Binding gt = Binding.valueOf("@{fn:gt(@{fn:mul(@{a.b},2)},1)}", context, context.getFunctionManager());
+        Binding sub = Binding.valueOf("@{fn:sub()}", context, context.getFunctionManager());
+
+        assertThat(add.evaluate(null, data(), 0).isNull(), is(true));
+        assertThat(gt.evaluate(null, data(), 0).getAsBoolean(), is(false));
+        assertThat(sub.evaluate(null, data(), 0).isNull(), is(true));
+    }
+
+    @Test
+    public void evaluate_comparison() throws Exception {
+        ProteusContext context = context();
+        Binding gt = Binding.valueOf("@{fn:gt(@{a.b.c},@{fn:add(5,4)})}", context, context.getFunctionManager());
+        Binding lte = Binding.valueOf("@{fn:lte(@{a.b.c},9)}", context, context.getFunctionManager());
+        Binding lt = Binding.valueOf("@{fn:lt(@{a.b},11)}", context, context.getFunctionManager());
+
+        assertThat(gt.evaluate(null, data(), 0) == ProteusConstants.TRUE, is(true));
+        assertThat(lte.evaluate(null, data(), 0) == ProteusConstants.FALSE, is(true));
+        assertThat(lt.evaluate(null, data(), 0) == ProteusConstants.FALSE, is(true));
+    }
+
+    @Test
+    public void evaluate_function_reuses_arguments() throws Exception {
+        ProteusContext context = context();
+        Binding binding = Binding.valueOf("@{fn:ternary(@{a.b.d},@{a.b.c},@{e[0]})}", context, context.getFunctionManager());
+        ObjectValue data = data();
+
+        assertThat(binding.evaluate(null, data, 0).getAsInt(), is(10));
+
+        data.getAsObject("a").getAsObject("b").addProperty("d", false);
+
+        assertThat(binding.evaluate(null, data, 0).getAsString(), is("alpha"));
+    }
+
     @Test
     public void to_string_1() throws Exception {
         String string = "@{a.b.c}";
@@ -208,6 +387,38 @@ public class BindingTest {
         assertThat(value.toString(), is("2"));
     }
 
+    @Test
+    public void evaluate_array_literal_index() throws Exception {
+        Binding binding = Binding.valueOf("@{e[0]}", null, null);
+
+        Value value = binding.evaluate(null, data(), 1);
+
+        assertThat(value.toString(), is("alpha"));
+    }
+
+    @Test
+    public void evaluate_array_invalid_segment() throws Exception {
+        Binding binding = Binding.valueOf("@{e.a}", null, null);
+
+        Value value = binding.evaluate(null, data(), 0);
+
+        assertThat(value.toString(), is("NULL"));
+    }
+
+    @Test
+    public void evaluate_numeric_object_key() throws Exception {
+        ObjectValue data = data();
+        ObjectValue object = new ObjectValue();
+        object.add("0", new Primitive("zero"));
+        data.add("h", object);
+
+        Binding binding = Binding.valueOf("@{h[0]}", null, null);
+
+        Value value = binding.evaluate(null, data, 1);
+
+        assertThat(value.toString(), is("zero"));
+    }
+
     @Test
     public void evaluate_array_invalid_index_1() throws Exception {
         Binding binding = Binding.valueOf("@{e[8]}", null, null);
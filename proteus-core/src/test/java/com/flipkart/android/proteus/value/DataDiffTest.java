@@ -0,0 +1,119 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.value;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * DataDiffTest
+ */
+public class DataDiffTest {
+
+    private static ObjectValue product(int id) {
+        ObjectValue product = new ObjectValue();
+        product.addProperty("id", id);
+        product.addProperty("title", "product " + id);
+        product.addProperty("price", id * 10);
+        return product;
+    }
+
+    private static ObjectValue feed(int size) {
+        ObjectValue data = new ObjectValue();
+        Array products = new Array();
+        for (int i = 0; i < size; i++) {
+            products.add(product(i));
+        }
+        data.add("products", products);
+        ObjectValue cart = new ObjectValue();
+        cart.addProperty("count", 0);
+        data.add("cart", cart);
+        return data;
+    }
+
+    @Test
+    public void equal() throws Exception {
+        assertThat(DataDiff.diff(feed(10), feed(10)).isEmpty(), is(true));
+    }
+
+    @Test
+    public void changed_paths() throws Exception {
+        ObjectValue previous = feed(10);
+        ObjectValue next = feed(10);
+        next.getAsArray("products").get(3).getAsObject().addProperty("price", 1);
+        next.getAsObject("cart").addProperty("count", 1);
+        next.getAsObject("cart").addProperty("total", 1);
+        next.getAsArray("products").get(5).getAsObject().remove("title");
+
+        List<String> paths = DataDiff.diff(previous, next);
+
+        assertThat(new HashSet<>(paths), is(new HashSet<>(Arrays.asList(
+                "products[3].price", "products[5].title", "cart.count", "cart.total"))));
+    }
+
+    @Test
+    public void array_size() throws Exception {
+        ObjectValue next = feed(11);
+
+        assertThat(DataDiff.diff(feed(10), next), is(Collections.singletonList("products")));
+    }
+
+    @Test
+    public void limit() throws Exception {
+        ObjectValue next = feed(10);
+        for (int i = 0; i < 10; i++) {
+            next.getAsArray("products").get(i).getAsObject().addProperty("price", -1);
+        }
+
+        assertThat(DataDiff.diff(feed(10), next, 5), is(Collections.singletonList(DataDiff.ROOT)));
+        assertThat(DataDiff.diff(feed(10), next, 10).size(), is(10));
+        assertThat(DataDiff.diff(null, next), is(Collections.singletonList(DataDiff.ROOT)));
+    }
+
+    @Test
+    public void snapshot() throws Exception {
+        ObjectValue data = feed(10);
+        ObjectValue snapshot = data.snapshot();
+        data.getAsArray("products").get(3).getAsObject().addProperty("price", 1);
+
+        assertThat(DataDiff.diff(snapshot, data), is(Collections.singletonList("products[3].price")));
+        // the diff only reads, so the snapshot still shares the unchanged subtrees
+        assertThat(snapshot.peek("cart").getAsObject().isSharedWith(data.peek("cart").getAsObject()), is(true));
+    }
+
+    @Test
+    public void large_feed() throws Exception {
+        ObjectValue previous = feed(1000);
+        ObjectValue next = feed(1000);
+        next.getAsArray("products").get(500).getAsObject().addProperty("price", -1);
+        ObjectValue snapshot = next.snapshot();
+        next.getAsArray("products").get(500).getAsObject().addProperty("price", -2);
+
+        assertThat(DataDiff.diff(previous, next), is(Collections.singletonList("products[500].price")));
+        assertThat(DataDiff.diff(snapshot, next), is(Collections.singletonList("products[500].price")));
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.value;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * DataPatchTest
+ */
+public class DataPatchTest {
+
+    private static ObjectValue product(int id) {
+        ObjectValue product = new ObjectValue();
+        product.addProperty("id", id);
+        product.addProperty("title", "product " + id);
+        product.addProperty("price", id * 10);
+        return product;
+    }
+
+    private static ObjectValue feed(int size) {
+        ObjectValue data = new ObjectValue();
+        Array products = new Array();
+        for (int i = 0; i < size; i++) {
+            products.add(product(i));
+        }
+        data.add("products", products);
+        ObjectValue cart = new ObjectValue();
+        cart.addProperty("count", 0);
+        data.add("cart", cart);
+        return data;
+    }
+
+    private static ObjectValue operation(String op, String path, Value value) {
+        ObjectValue operation = new ObjectValue();
+        operation.addProperty("op", op);
+        operation.addProperty("path", path);
+        if (null != value) {
+            operation.add("value", value);
+        }
+        return operation;
+    }
+
+    private static ObjectValue operation(String op, String from, String path) {
+        ObjectValue operation = operation(op, path, (Value) null);
+        operation.addProperty("from", from);
+        return operation;
+    }
+
+    private static Array patch(ObjectValue... operations) {
+        Array patch = new Array();
+        for (ObjectValue operation : operations) {
+            patch.add(operation);
+        }
+        return patch;
+    }
+
+    @Test
+    public void merge() throws Exception {
+        ObjectValue data = feed(2);
+        data.getAsObject("cart").addProperty("coupon", "SALE");
+
+        ObjectValue cart = new ObjectValue();
+        cart.addProperty("count", 1);
+        cart.add("coupon", Null.INSTANCE);
+        cart.addProperty("total", 10);
+        ObjectValue patch = new ObjectValue();
+        patch.add("cart", cart);
+        patch.addProperty("title", "deals");
+
+        List<String> paths = DataPatch.merge(data, patch);
+
+        assertThat(paths, is(Arrays.asList("cart.count", "cart.coupon", "cart.total", "title")));
+        assertThat(data.getAsObject("cart").getAsInteger("count"), is(1));
+        assertThat(data.getAsObject("cart").has("coupon"), is(false));
+        assertThat(data.getAsString("title"), is("deals"));
+        assertThat(data.getAsArray("products"), is(feed(2).getAsArray("products")));
+    }
+
+    @Test
+    public void merge_unchanged() throws Exception {
+        ObjectValue data = feed(2);
+        ObjectValue cart = new ObjectValue();
+        cart.addProperty("count", 0);
+        ObjectValue patch = new ObjectValue();
+        patch.add("cart", cart);
+        patch.add("missing", Null.INSTANCE);
+
+        assertThat(DataPatch.merge(data, patch).isEmpty(), is(true));
+        assertThat(data, is(feed(2)));
+    }
+
+    @Test
+    public void merge_replaces_non_objects() throws Exception {
+        ObjectValue data = feed(2);
+        ObjectValue products = new ObjectValue();
+        products.addProperty("count", 2);
+        products.add("removed", Null.INSTANCE);
+        ObjectValue patch = new ObjectValue();
+        patch.add("products", products);
+
+        assertThat(DataPatch.merge(data, patch), is(Collections.singletonList("products")));
+        assertThat(data.getAsObject("products").size(), is(1));
+        assertThat(data.getAsObject("products").getAsInteger("count"), is(2));
+    }
+
+    @Test
+    public void apply() throws Exception {
+        ObjectValue data = feed(3);
+        data.addProperty("a/b~c", 1);
+
+        List<String> paths = DataPatch.apply(data, patch(
+                operation("test", "/products/1/id", Primitive.valueOf(1)),
+                operation("replace", "/products/1/price", Primitive.valueOf(5)),
+                operation("replace", "/products/2/price", Primitive.valueOf(20)),
+                operation("add", "/cart/total", Primitive.valueOf(5)),
+                operation("replace", "/a~1b~0c", Primitive.valueOf(2)),
+                operation("copy", "/products/1", "/cart/last"),
+                operation("move", "/cart/count", "/cart/size")));
+
+        assertThat(paths, is(Arrays.asList(
+                "products[1].price", "cart.total", "a/b~c", "cart.last", "cart.count", "cart.size")));
+        assertThat(data.getAsArray("products").get(1).getAsObject().getAsInteger("price"), is(5));
+        assertThat(data.getAsInteger("a/b~c"), is(2));
+        assertThat(data.getAsObject("cart").getAsObject("last"), is(data.getAsArray("products").get(1)));
+        assertThat(data.getAsObject("cart").has("count"), is(false));
+        assertThat(data.getAsObject("cart").getAsInteger("size"), is(0));
+
+        data.getAsObject("cart").getAsObject("last").addProperty("price", 7);
+        assertThat(data.getAsArray("products").get(1).getAsObject().getAsInteger("price"), is(5));
+    }
+
+    @Test
+    public void apply_array() throws Exception {
+        ObjectValue data = feed(3);
+
+        List<String> paths = DataPatch.apply(data, patch(
+                operation("add", "/products/-", product(3)),
+                operation("add", "/products/0", product(-1)),
+                operation("remove", "/products/2", (Value) null),
+                operation("replace", "/products/0/id", Primitive.valueOf(-1))));
+
+        assertThat(paths, is(Collections.singletonList("products")));
+        Array products = data.getAsArray("products");
+        assertThat(products.size(), is(4));
+        assertThat(products.get(0).getAsObject().getAsInteger("id"), is(-1));
+        assertThat(products.get(1).getAsObject().getAsInteger("id"), is(0));
+        assertThat(products.get(2).getAsObject().getAsInteger("id"), is(2));
+        assertThat(products.get(3).getAsObject().getAsInteger("id"), is(3));
+    }
+
+    @Test
+    public void apply_root() throws Exception {
+        ObjectValue data = feed(3);
+
+        assertThat(DataPatch.apply(data, patch(operation("replace", "", feed(1)))),
+                is(Collections.singletonList(DataDiff.ROOT)));
+        assertThat(data, is(feed(1)));
+    }
+
+    @Test
+    public void apply_errors() throws Exception {
+        Array[] patches = new Array[]{
+                patch(operation("replace", "/missing", Primitive.valueOf(1))),
+                patch(operation("remove", "/products/3", (Value) null)),
+                patch(operation("add", "/products/01", product(1))),
+                patch(operation("add", "/products/-/id", Primitive.valueOf(1))),
+                patch(operation("add", "cart", Primitive.valueOf(1))),
+                patch(operation("test", "/cart/count", Primitive.valueOf(1))),
+                patch(operation("move", "/cart", "/cart/inner")),
+                patch(operation("add", "/cart/count", (Value) null)),
+                patch(operation("upsert", "/cart/count", Primitive.valueOf(1))),
+        };
+        for (Array patch : patches) {
+            ObjectValue data = feed(3);
+            try {
+                DataPatch.apply(data, patch);
+                throw new AssertionError("expected IllegalArgumentException for " + patch);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void apply_snapshot() throws Exception {
+        ObjectValue data = feed(3);
+        ObjectValue snapshot = data.snapshot();
+
+        DataPatch.apply(snapshot, patch(operation("replace", "/products/1/price", Primitive.valueOf(5))));
+
+        assertThat(data, is(feed(3)));
+        assertThat(DataDiff.diff(data, snapshot), is(Collections.singletonList("products[1].price")));
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.value;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * ObjectValueTest
+ */
+public class ObjectValueTest {
+
+    private static ObjectValue product(int id, boolean inflated) {
+        ObjectValue product = new ObjectValue();
+        if (inflated) {
+            // a removal moves the object to a map
+            product.add("_", Null.INSTANCE);
+            product.remove("_");
+        }
+        for (int i = 0; i < 20; i++) {
+            product.addProperty("field" + i, id * 100 + i);
+        }
+        return product;
+    }
+
+    @Test
+    public void add_get() throws Exception {
+        ObjectValue object = new ObjectValue();
+        object.addProperty("a", 1);
+        object.addProperty("b", "two");
+        object.add("c", null);
+        object.addProperty("a", 3);
+
+        assertThat(object.size(), is(3));
+        assertThat(object.getAsInteger("a"), is(3));
+        assertThat(object.getAsString("b"), is("two"));
+        assertThat(object.isNull("c"), is(true));
+        assertThat(object.has("d"), is(false));
+        assertThat(object.get("d") == null, is(true));
+    }
+
+    @Test
+    public void shapes_are_shared() throws Exception {
+        ObjectValue a = product(1, false);
+        ObjectValue b = product(2, false);
+
+        assertThat(shapeOf(a) == shapeOf(b), is(true));
+        assertThat(b.getAsInteger("field19"), is(219));
+    }
+
+    @Test
+    public void entry_set_in_order() throws Exception {
+        ObjectValue object = new ObjectValue();
+        object.addProperty("z", 1);
+        object.addProperty("y", 2);
+        object.addProperty("x", 3);
+
+        Iterator<Map.Entry<String, Value>> iterator = object.entrySet().iterator();
+        assertThat(iterator.next().getKey(), is("z"));
+        Map.Entry<String, Value> y = iterator.next();
+        y.setValue(new Primitive(4));
+        assertThat(iterator.next().getKey(), is("x"));
+        assertThat(iterator.hasNext(), is(false));
+        assertThat(object.getAsInteger("y"), is(4));
+    }
+
+    @Test
+    public void remove() throws Exception {
+        ObjectValue object = product(1, false);
+
+        assertThat(object.remove("missing") == null, is(true));
+        assertThat(object.remove("field3").getAsInt(), is(103));
+        assertThat(object.size(), is(19));
+        assertThat(object.has("field3"), is(false));
+        assertThat(object.getAsInteger("field4"), is(104));
+    }
+
+    @Test
+    public void entry_set_remove() throws Exception {
+        ObjectValue object = product(1, false);
+
+        Iterator<Map.Entry<String, Value>> iterator = object.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Value> entry = iterator.next();
+            if (entry.getValue().getAsInt() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertThat(object.size(), is(10));
+        assertThat(object.has("field0"), is(false));
+        assertThat(object.getAsInteger("field19"), is(119));
+        iterator = object.entrySet().iterator();
+        assertThat(iterator.next().getKey(), is("field1"));
+        assertThat(iterator.next().getKey(), is("field3"));
+        assertThat(object.equals(product(1, false)), is(false));
+    }
+
+    @Test
+    public void null_key() throws Exception {
+        ObjectValue object = product(1, false);
+        object.addProperty(null, 1);
+
+        assertThat(object.has(null), is(true));
+        assertThat(object.getAsInteger(null), is(1));
+        assertThat(object.size(), is(21));
+        assertThat(product(1, false).has(null), is(false));
+        assertThat(product(1, false).get(null) == null, is(true));
+    }
+
+    @Test
+    public void large_object() throws Exception {
+        ObjectValue object = new ObjectValue();
+        for (int i = 0; i < Shape.MAX_SIZE * 2; i++) {
+            object.addProperty("key" + i, i);
+        }
+
+        assertThat(object.size(), is(Shape.MAX_SIZE * 2));
+        assertThat(object.getAsInteger("key" + (Shape.MAX_SIZE + 1)), is(Shape.MAX_SIZE + 1));
+        assertThat(object.getAsInteger("key0"), is(0));
+    }
+
+    @Test
+    public void equals_across_representations() throws Exception {
+        ObjectValue compact = product(1, false);
+        ObjectValue inflated = product(1, true);
+
+        assertThat(compact.equals(inflated), is(true));
+        assertThat(inflated.equals(compact), is(true));
+        assertThat(compact.hashCode() == inflated.hashCode(), is(true));
+        assertThat(compact.equals(product(2, false)), is(false));
+        assertThat(compact.copy().equals(inflated), is(true));
+    }
+
+    @Test
+    public void snapshot() throws Exception {
+        ObjectValue data = new ObjectValue();
+        Array products = new Array();
+        products.add(product(1, false));
+        products.add(product(2, true));
+        data.add("products", products);
+        data.addProperty("title", "feed");
+
+        ObjectValue snapshot = data.snapshot();
+        assertThat(snapshot.isSharedWith(data), is(true));
+        assertThat(snapshot.equals(data), is(true));
+
+        data.getAsArray("products").get(0).getAsObject().addProperty("field0", -1);
+        data.getAsArray("products").get(1).getAsObject().remove("field1");
+        data.getAsArray("products").add(product(3, false));
+
+        assertThat(snapshot.isSharedWith(data), is(false));
+        assertThat(snapshot.getAsArray("products").size(), is(2));
+        assertThat(snapshot.getAsArray("products").get(0).getAsObject().getAsInteger("field0"), is(100));
+        assertThat(snapshot.getAsArray("products").get(1).getAsObject().has("field1"), is(true));
+        assertThat(data.getAsArray("products").get(0).getAsObject().getAsInteger("field0"), is(-1));
+
+        // the other way around
+        snapshot.addProperty("title", "changed");
+        snapshot.getAsArray("products").get(1).getAsObject().addProperty("field2", -2);
+        assertThat(data.getAsString("title"), is("feed"));
+        assertThat(data.getAsArray("products").get(1).getAsObject().getAsInteger("field2"), is(202));
+    }
+
+    @Test
+    public void snapshot_shares_unchanged_subtrees() throws Exception {
+        ObjectValue data = new ObjectValue();
+        data.add("a", product(1, false));
+        data.add("b", product(2, false));
+        ObjectValue snapshot = data.snapshot();
+
+        data.getAsObject("a").addProperty("field0", -1);
+
+        assertThat(snapshot.getAsObject("a").isSharedWith(data.getAsObject("a")), is(false));
+        assertThat(snapshot.getAsObject("b").isSharedWith(data.getAsObject("b")), is(true));
+    }
+
+    @Test
+    public void reads_keep_snapshot_shared() throws Exception {
+        ObjectValue data = new ObjectValue();
+        Array feed = new Array();
+        feed.add(product(1, false));
+        data.add("products", feed);
+        ObjectValue snapshot = data.snapshot();
+        int version = data.getVersion();
+
+        assertThat(Binding.DataBinding.valueOf("products[0].field3").evaluate(null, data, 0).getAsInt(), is(103));
+        assertThat(Binding.DataBinding.valueOf("products[$index].field4").evaluate(null, data, 0).getAsInt(), is(104));
+        assertThat(Binding.DataBinding.valueOf("products[$last].field5").evaluate(null, data, 0).getAsInt(), is(105));
+
+        // a binding only reads, so the data still shares its storage with the snapshot
+        assertThat(data.isSharedWith(snapshot), is(true));
+        assertThat(data.getVersion(), is(version));
+    }
+
+    @Test
+    public void entry_set_writes_change_version() throws Exception {
+        ObjectValue object = product(1, true);
+        int version = object.getVersion();
+        for (Map.Entry<String, Value> entry : object.entrySet()) {
+            entry.getValue();
+        }
+
+        assertThat(object.getVersion(), is(version));
+
+        Map.Entry<String, Value> entry = object.entrySet().iterator().next();
+        entry.setValue(new Primitive(-1));
+
+        assertThat(object.getVersion() != version, is(true));
+        assertThat(object.getAsInteger(entry.getKey()), is(-1));
+    }
+
+    @Test
+    public void snapshot_of_feed() throws Exception {
+        ObjectValue data = new ObjectValue();
+        Array feed = new Array();
+        for (int i = 0; i < 500; i++) {
+            feed.add(product(i, false));
+        }
+        data.add("products", feed);
+
+        for (int run = 0; run < 3; run++) {
+            ObjectValue snapshot = data.snapshot();
+            data.getAsArray("products").get(250).getAsObject().addProperty("field0", -run - 1);
+
+            assertThat(snapshot.getAsArray("products").get(250).getAsObject().getAsInteger("field0"), is(run == 0 ? 25000 : -run));
+            assertThat(snapshot.getAsArray("products").get(249).equals(data.getAsArray("products").get(249)), is(true));
+        }
+    }
+
+    private static Shape shapeOf(ObjectValue object) throws Exception {
+        java.lang.reflect.Field field = ObjectValue.class.getDeclaredField("shape");
+        field.setAccessible(true);
+        return (Shape) field.get(object);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Apache License
+ * Version 2.0, January 2004
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * TERMS AND CONDITIONS FOR USE, REPRODUCTION, AND DISTRIBUTION
+ *
+ * Copyright (c) 2017 Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.flipkart.android.proteus.value;
+
+import com.flipkart.android.proteus.ProteusConstants;
+import com.flipkart.android.proteus.toolbox.LazilyParsedNumber;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * PrimitiveTest
+ */
+public class PrimitiveTest {
+
+    @Test
+    public void shared_instances() throws Exception {
+        assertThat(Primitive.valueOf(true) == ProteusConstants.TRUE, is(true));
+        assertThat(Primitive.valueOf(false) == ProteusConstants.FALSE, is(true));
+        assertThat(Primitive.valueOf(1) == Primitive.valueOf(1L), is(true));
+        assertThat(Primitive.valueOf(0) == Primitive.valueOf(new LazilyParsedNumber("0")), is(true));
+        assertThat(Primitive.valueOf(100000) == Primitive.valueOf(100000), is(false));
+    }
+
+    @Test
+    public void equals_across_representations() throws Exception {
+        Primitive[] tens = new Primitive[]{
+                new Primitive(10),
+                Primitive.valueOf(10),
+                Primitive.valueOf(10L),
+                Primitive.valueOf(10.0),
+                Primitive.valueOf(new LazilyParsedNumber("10")),
+                Primitive.valueOf(new LazilyParsedNumber("10.0")),
+        };
+        for (Primitive a : tens) {
+            for (Primitive b : tens) {
+                assertThat(a + " == " + b, a.equals(b), is(true));
+                assertThat(a + " # " + b, a.hashCode() == b.hashCode(), is(true));
+            }
+        }
+        assertThat(Primitive.valueOf(true).equals(new Primitive(true)), is(true));
+        assertThat(Primitive.valueOf("a").equals(new Primitive("a")), is(true));
+        assertThat(Primitive.valueOf("a").hashCode() == new Primitive("a").hashCode(), is(true));
+        assertThat(Primitive.valueOf(1.5).equals(Primitive.valueOf(1)), is(false));
+    }
+
+    @Test
+    public void conversions() throws Exception {
+        assertThat(Primitive.valueOf(new LazilyParsedNumber("1.50")).getAsString(), is("1.50"));
+        assertThat(Primitive.valueOf(new LazilyParsedNumber("1.50")).getAsDouble(), is(1.5));
+        assertThat(Primitive.valueOf(new LazilyParsedNumber("1.50")).getAsInt(), is(1));
+        assertThat(Primitive.valueOf(24.0).getAsString(), is("24.0"));
+        assertThat(Primitive.valueOf(-7).getAsString(), is("-7"));
+        assertThat(Primitive.valueOf(true).getAsString(), is("true"));
+        assertThat(Primitive.valueOf("12").getAsInt(), is(12));
+        assertThat(Primitive.valueOf("12").getAsInt(), is(12));
+        assertThat(Primitive.valueOf("12").isNumber(), is(false));
+        assertThat(Primitive.valueOf("2.5").getAsDouble(), is(2.5));
+        assertThat(Primitive.valueOf("2.5").getAsNumber().floatValue(), is(2.5f));
+    }
+
+    @Test
+    public void invalid_number_string() throws Exception {
+        Primitive primitive = Primitive.valueOf("1.5");
+        for (int i = 0; i < 2; i++) {
+            try {
+                primitive.getAsInt();
+                throw new AssertionError("expected NumberFormatException");
+            } catch (NumberFormatException e) {
+                // expected, every time
+            }
+        }
+        assertThat(primitive.getAsDouble(), is(1.5));
+    }
+}